@@ -0,0 +1,109 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Benchmarks dos caminhos mais usados do {@link BookService} e da renderização da listagem.
+ * <p>
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec}. O resultado é gravado em
+ * {@code target/jmh-result.json}. Para restringir os tamanhos de catálogo, use por exemplo
+ * {@code -Djmh.args="-p catalogSize=10000 -rf json -rff target/jmh-result.json"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BookServiceBenchmark {
+
+    private BookService service;
+    private BookRepository repository;
+    private MockMvc mockMvc;
+    private Random random;
+    private int catalogSize;
+
+    @Setup
+    public void setup(CatalogState catalog) {
+        service = catalog.bean(BookService.class);
+        repository = catalog.bean(BookRepository.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) catalog.context).build();
+        random = new Random(7);
+        catalogSize = catalog.catalogSize;
+    }
+
+    @Benchmark
+    public List<BookSummary> findByTerm() {
+        return service.findByTerm(randomWord());
+    }
+
+    @Benchmark
+    public List<BookSummary> findByTermRepositoryLike() {
+        String word = randomWord();
+        return repository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(word, word);
+    }
+
+    @Benchmark
+    public List<BookSummary> listAll() {
+        return service.listAll();
+    }
+
+    @Benchmark
+    public Book findById() {
+        return service.findById(randomId());
+    }
+
+    @Benchmark
+    public Book save() {
+        Book book = new Book();
+        book.setTitle(CatalogState.title(random));
+        book.setAuthor(CatalogState.AUTHORS[random.nextInt(CatalogState.AUTHORS.length)]);
+        book.setPublicationYear(2000 + random.nextInt(25));
+        return service.save(book);
+    }
+
+    @Benchmark
+    public Book update() {
+        Book data = new Book();
+        data.setTitle(CatalogState.title(random));
+        data.setAuthor(CatalogState.AUTHORS[random.nextInt(CatalogState.AUTHORS.length)]);
+        data.setPublicationYear(2000 + random.nextInt(25));
+        return service.update(randomId(), data);
+    }
+
+    @Benchmark
+    public MvcResult controllerList() throws Exception {
+        return mockMvc.perform(get("/books")).andReturn();
+    }
+
+    private String randomWord() {
+        return CatalogState.WORDS[random.nextInt(CatalogState.WORDS.length)];
+    }
+
+    private long randomId() {
+        return 1 + random.nextInt(catalogSize);
+    }
+}
@@ -0,0 +1,118 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import com.raphaelsantos.book_catalog_pit.BookCatalogPitApplication;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estado compartilhado pelos benchmarks: sobe a aplicação com o H2 em memória
+ * e popula o catálogo com a quantidade de livros definida em {@code catalogSize}.
+ * Os dados são gerados de forma determinística, a partir de um vocabulário fixo,
+ * e inseridos direto pelo JDBC; em seguida é publicado um {@link CatalogReloadedEvent}.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    static final String[] WORDS = {
+            "amor", "guerra", "noite", "cidade", "mar", "sombra", "tempo", "casa", "rio", "sertão",
+            "memória", "segredo", "jardim", "viagem", "coração", "estrela", "floresta", "silêncio",
+            "fogo", "ilha", "caminho", "janela", "espelho", "vento", "labirinto", "ouro", "lua", "sol"
+    };
+    static final String[] AUTHORS = {
+            "Machado de Assis", "Clarice Lispector", "Jorge Amado", "Cecília Meireles", "Graciliano Ramos",
+            "Rachel de Queiroz", "Érico Veríssimo", "Guimarães Rosa", "Lygia Fagundes Telles", "José de Alencar"
+    };
+    static final String[] GENRES = {"Romance", "Ficção", "Fantasia", "Poesia", "Drama", "Suspense"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BookCatalogPitApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.thymeleaf.cache=true",
+                        "logging.level.root=WARN",
+                        "catalog.snapshot.file=target/jmh-catalog.snapshot")
+                .run();
+
+        seed(context.getBean(JdbcTemplate.class));
+        // Recarrega todas as estruturas em memória e caches, como após a restauração de um snapshot
+        context.publishEvent(new CatalogReloadedEvent(catalogSize));
+        context.getBean(CacheManager.class).getCacheNames()
+                .forEach(name -> context.getBean(CacheManager.class).getCache(name).clear());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.from(Instant.now());
+        String sql = "insert into book (id, title, author, publication_year, genre, synopsis, version, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, 0, ?)";
+
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (long id = 1; id <= catalogSize; id++) {
+            batch.add(new Object[]{
+                    id,
+                    title(random),
+                    AUTHORS[random.nextInt(AUTHORS.length)],
+                    1900 + random.nextInt(125),
+                    GENRES[random.nextInt(GENRES.length)],
+                    synopsis(random),
+                    now
+            });
+            if (batch.size() == 1000) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+
+        // Afasta a sequence dos IDs gerados acima
+        jdbc.execute("alter sequence book_seq restart with " + (catalogSize + 100));
+    }
+
+    static String title(Random random) {
+        return capitalize(WORDS[random.nextInt(WORDS.length)]) + " e " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String synopsis(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
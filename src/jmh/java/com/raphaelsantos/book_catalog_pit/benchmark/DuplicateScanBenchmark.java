@@ -0,0 +1,42 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import com.raphaelsantos.book_catalog_pit.search.DuplicateReport;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a varredura completa de duplicatas. Os títulos do catálogo de benchmark
+ * combinam poucas palavras e autores, o que gera grupos enormes de livros
+ * parecidos: é o pior caso para o agrupamento.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class DuplicateScanBenchmark {
+
+    private DuplicateScanner scanner;
+
+    @Setup
+    public void setup(CatalogState catalog) {
+        scanner = catalog.bean(DuplicateScanner.class);
+    }
+
+    @Benchmark
+    public DuplicateReport scan() {
+        return scanner.scan(10);
+    }
+}
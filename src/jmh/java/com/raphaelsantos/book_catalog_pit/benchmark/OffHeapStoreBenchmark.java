@@ -0,0 +1,82 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.store.BookView;
+import com.raphaelsantos.book_catalog_pit.store.OffHeapBookStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o catálogo em memória com o banco nas leituras por ID e na varredura completa.
+ * Rode com {@code -prof gc} para ver a alocação por operação de cada caminho.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OffHeapStoreBenchmark {
+
+    private OffHeapBookStore store;
+    private BookRepository repository;
+    private Random random;
+    private int catalogSize;
+
+    @Setup(Level.Trial)
+    public void setup(CatalogState catalog) {
+        store = new OffHeapBookStore(catalog.bean(CatalogSource.class), new SimpleMeterRegistry(), true);
+        store.reload();
+        repository = catalog.bean(BookRepository.class);
+        random = new Random(42);
+        catalogSize = catalog.catalogSize;
+    }
+
+    @Benchmark
+    public Book findByIdRepository() {
+        return repository.findById(1L + random.nextInt(catalogSize)).orElseThrow();
+    }
+
+    @Benchmark
+    public Book findByIdStore() {
+        return store.findBook(1L + random.nextInt(catalogSize));
+    }
+
+    @Benchmark
+    public int publicationYearStore() {
+        return store.read(1L + random.nextInt(catalogSize), BookView::publicationYear);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BookSummary> listAllRepository() {
+        return repository.findSummariesBy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scanStore() {
+        long[] sum = new long[1];
+        store.forEach(view -> sum[0] += view.publicationYear());
+        return sum[0];
+    }
+}
@@ -0,0 +1,82 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.BookExportService;
+import com.raphaelsantos.book_catalog_pit.service.BookSnapshotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o snapshot binário com os caminhos equivalentes via JPA:
+ * gravação contra a exportação JSON Lines e leitura mapeada em memória
+ * contra o {@code findAll()} usado na reconstrução dos índices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+
+    private BookSnapshotService snapshots;
+    private BookExportService export;
+    private BookRepository repository;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setup(CatalogState catalog) throws IOException {
+        snapshots = catalog.bean(BookSnapshotService.class);
+        export = catalog.bean(BookExportService.class);
+        repository = catalog.bean(BookRepository.class);
+        readOnly = new TransactionTemplate(catalog.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // Garante que o arquivo lido pelos benchmarks de leitura exista
+        snapshots.save();
+    }
+
+    @Benchmark
+    public long writeSnapshot() throws IOException {
+        return snapshots.write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeJsonLines() throws IOException {
+        export.exportJsonLines(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public long readSnapshot(Blackhole blackhole) throws IOException {
+        return snapshots.read(blackhole::consume);
+    }
+
+    @Benchmark
+    public int readJpa(Blackhole blackhole) {
+        return readOnly.execute(status -> {
+            int count = 0;
+            for (Book book : repository.findAll()) {
+                blackhole.consume(book);
+                count++;
+            }
+            return count;
+        });
+    }
+}
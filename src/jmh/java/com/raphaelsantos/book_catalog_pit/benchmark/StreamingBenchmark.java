@@ -0,0 +1,111 @@
+package com.raphaelsantos.book_catalog_pit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a listagem completa do catálogo ({@code /api/stream/books}) enviada em NDJSON,
+ * lida do banco em páginas à medida que o cliente consome, com a mesma rota pedida em
+ * {@code application/json}, em que o Spring MVC monta a lista inteira em memória antes
+ * de responder, com {@code connections} requisições simultâneas contra o servidor real.
+ * <p>
+ * Cada caminho roda em processos próprios (o JMH cria um fork por método), com o heap
+ * fixo em 512 MB, de modo que a memória usada por um não afeta o outro. Cada operação é a
+ * leitura completa de todas as respostas, descartando os bytes à medida que chegam. Use
+ * {@code -prof gc} para comparar a alocação; com catálogos grandes, o caminho que monta a
+ * lista pode falhar por falta de memória, o que também é um resultado.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Thread)
+public class StreamingBenchmark {
+
+    @Param({"10", "100"})
+    public int connections;
+
+    private HttpClient client;
+    private ExecutorService executor;
+    private String baseUri;
+
+    @Setup
+    public void setup(CatalogState catalog) {
+        baseUri = "http://localhost:" + catalog.context.getEnvironment().getProperty("local.server.port");
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(executor).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        executor.close();
+    }
+
+    @Benchmark
+    public long collectedList() throws Exception {
+        return fetchAll("application/json");
+    }
+
+    @Benchmark
+    public long streamedList() throws Exception {
+        return fetchAll("application/x-ndjson");
+    }
+
+    /**
+     * Dispara as requisições ao mesmo tempo e espera todas terminarem.
+     *
+     * @return total de bytes recebidos
+     */
+    private long fetchAll(String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + "/api/stream/books"))
+                .header("Accept", accept)
+                .build();
+
+        List<Future<Long>> responses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            responses.add(executor.submit(() -> read(request)));
+        }
+
+        long bytes = 0;
+        for (Future<Long> response : responses) {
+            bytes += response.get();
+        }
+        return bytes;
+    }
+
+    private long read(HttpRequest request) throws Exception {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Resposta " + response.statusCode() + " de " + response.uri());
+            }
+            // O cliente roda no mesmo processo: descarta o corpo para não ocupar o heap medido
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
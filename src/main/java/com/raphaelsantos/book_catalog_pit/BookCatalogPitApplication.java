@@ -2,8 +2,10 @@ package com.raphaelsantos.book_catalog_pit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class BookCatalogPitApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,57 @@
+package com.raphaelsantos.book_catalog_pit.cache;
+
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantém o cache de livros por ID coerente com o banco de dados.
+ * O cache em si é configurado pelas propriedades {@code spring.cache.*}
+ * (tamanho máximo, tempo de expiração e coleta de estatísticas).
+ * <p>
+ * As entradas são removidas somente após o commit da transação, para que
+ * uma leitura concorrente não volte a guardar o estado anterior do livro.
+ */
+@Component
+public class BookCache {
+
+    /**
+     * Nome do cache de livros indexado pelo ID.
+     */
+    public static final String BY_ID = "books";
+
+    private final CacheManager cacheManager;
+
+    public BookCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Invalida a entrada do livro alterado.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Cache cache = cacheManager.getCache(BY_ID);
+        if (cache != null) {
+            cache.evict(event.bookId());
+        }
+    }
+
+    /**
+     * Esvazia o cache quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        Cache cache = cacheManager.getCache(BY_ID);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.raphaelsantos.book_catalog_pit.cache;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Aquece o cache de livros na subida da aplicação a partir dos IDs que
+ * estavam mais quentes no encerramento anterior.
+ * <p>
+ * Ao fechar o contexto, grava em {@code catalog.warm-start.file} os IDs das
+ * entradas mais acessadas do cache; na subida seguinte, carrega esses livros
+ * em lotes e os coloca de volta no cache, de modo que um nó reiniciado já
+ * responda às páginas mais visitadas sem ir ao banco.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.warm-start.enabled", havingValue = "true")
+public class BookCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookCacheWarmer.class);
+
+    private static final int LOAD_BATCH = 500;
+
+    private final CacheManager cacheManager;
+    private final BookService service;
+    private final Path file;
+    private final int maxEntries;
+
+    public BookCacheWarmer(CacheManager cacheManager,
+                           BookService service,
+                           @Value("${catalog.warm-start.file:data/hot-books.txt}") Path file,
+                           @Value("${catalog.warm-start.max-entries:10000}") int maxEntries) {
+        this.cacheManager = cacheManager;
+        this.service = service;
+        this.file = file;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Carrega no cache os livros registrados no último encerramento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Cache cache = cacheManager.getCache(BookCache.BY_ID);
+        if (cache == null || !Files.exists(file)) {
+            return;
+        }
+
+        List<Long> ids;
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            ids = lines.filter(line -> !line.isBlank())
+                    .limit(maxEntries)
+                    .map(line -> Long.valueOf(line.strip()))
+                    .toList();
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Não foi possível ler a lista de livros para aquecer o cache: {}", e.getMessage());
+            return;
+        }
+
+        long started = System.nanoTime();
+        int loaded = 0;
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH) {
+            for (Book book : service.findByIds(ids.subList(from, Math.min(from + LOAD_BATCH, ids.size())))) {
+                cache.put(book.getId(), book);
+                loaded++;
+            }
+        }
+        log.info("Cache aquecido com {} livros em {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Registra os IDs mais acessados do cache, do mais quente para o mais frio.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void saveHotKeys() {
+        if (!(cacheManager.getCache(BookCache.BY_ID) instanceof CaffeineCache cache)) {
+            return;
+        }
+
+        Set<Object> keys = cache.getNativeCache().policy().eviction()
+                .map(eviction -> eviction.hottest(maxEntries).keySet())
+                .orElseGet(() -> cache.getNativeCache().asMap().keySet());
+
+        List<String> lines = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            lines.add(key.toString());
+        }
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "hot-books", ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Não foi possível gravar a lista de livros para aquecer o cache: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.raphaelsantos.book_catalog_pit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache das páginas de listagem já renderizadas, usado pelo
+ * {@link com.raphaelsantos.book_catalog_pit.web.ListPageCacheFilter}.
+ * <p>
+ * O tamanho é limitado pela soma dos bytes das páginas
+ * ({@code catalog.list-cache.max-bytes}), e não pela quantidade de entradas.
+ * Todas as páginas são descartadas após cada alteração no catálogo, já que
+ * uma única alteração pode mudar a listagem, as buscas e as facetas.
+ */
+@Component
+public class ListPageCache {
+
+    private final Cache<String, Page> pages;
+
+    public ListPageCache(MeterRegistry meterRegistry,
+                         @Value("${catalog.list-cache.max-bytes:33554432}") long maxBytes) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Page page) -> page.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "listPages");
+    }
+
+    /**
+     * @param key chave da página
+     * @return página renderizada, ou {@code null} se não estiver em cache
+     */
+    public Page get(String key) {
+        return pages.getIfPresent(key);
+    }
+
+    /**
+     * @param key  chave da página
+     * @param page página renderizada
+     */
+    public void put(String key, Page page) {
+        pages.put(key, page);
+    }
+
+    /**
+     * Descarta as páginas após o commit de cada alteração.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        pages.invalidateAll();
+    }
+
+    /**
+     * Descarta as páginas quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        pages.invalidateAll();
+    }
+
+    /**
+     * Resposta renderizada e os cabeçalhos necessários para reproduzi-la.
+     *
+     * @param contentType  tipo do conteúdo, com a codificação
+     * @param etag         ETag gerada pelo controlador
+     * @param lastModified data da última alteração, no formato HTTP
+     * @param body         corpo da resposta
+     */
+    public record Page(String contentType, String etag, String lastModified, byte[] body) {
+    }
+}
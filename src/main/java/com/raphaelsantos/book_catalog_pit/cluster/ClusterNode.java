@@ -0,0 +1,27 @@
+package com.raphaelsantos.book_catalog_pit.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identificação deste processo entre os nós que compartilham o mesmo banco.
+ * Sem {@code catalog.cluster.node-id}, um identificador aleatório é gerado a cada inicialização.
+ */
+@Component
+public class ClusterNode {
+
+    private final String id;
+
+    public ClusterNode(@Value("${catalog.cluster.node-id:}") String id) {
+        this.id = id.isBlank() ? UUID.randomUUID().toString() : id;
+    }
+
+    /**
+     * @return identificador deste nó, com até 36 caracteres
+     */
+    public String id() {
+        return id;
+    }
+}
@@ -0,0 +1,196 @@
+package com.raphaelsantos.book_catalog_pit.cluster;
+
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import com.raphaelsantos.book_catalog_pit.web.BookChangeBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Avisa os outros nós do cluster, por UDP, que há alterações novas no outbox.
+ * <p>
+ * O aviso não carrega a alteração, só o identificador do nó: quem o recebe lê o
+ * outbox na hora ({@link BookChangeBroadcaster#pollNow()}) em vez de esperar a
+ * próxima leitura periódica. Avisos de alterações próximas são combinados em um só.
+ * Um aviso perdido apenas atrasa a atualização até {@code catalog.changes.poll-interval},
+ * que é o limite de desatualização de um nó.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cluster.enabled", havingValue = "true")
+public class ClusterNotifier implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterNotifier.class);
+
+    private final BookChangeBroadcaster broadcaster;
+    private final byte[] message;
+    private final int port;
+    private final List<InetSocketAddress> peers;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Counter sent;
+    private final Counter received;
+
+    private volatile boolean running;
+    private DatagramChannel channel;
+    private Thread sender;
+    private Thread receiver;
+
+    public ClusterNotifier(BookChangeBroadcaster broadcaster,
+                           ClusterNode node,
+                           MeterRegistry meterRegistry,
+                           @Value("${catalog.cluster.port:9300}") int port,
+                           @Value("${catalog.cluster.peers:}") String peers) {
+        this.broadcaster = broadcaster;
+        this.message = node.id().getBytes(StandardCharsets.UTF_8);
+        this.port = port;
+        this.peers = Arrays.stream(peers.split(","))
+                .map(String::strip)
+                .filter(peer -> !peer.isEmpty())
+                .map(ClusterNotifier::parse)
+                .toList();
+
+        this.sent = Counter.builder("catalog.cluster.notifications")
+                .tag("direction", "sent")
+                .description("Avisos de alteração trocados com os outros nós")
+                .register(meterRegistry);
+        this.received = Counter.builder("catalog.cluster.notifications")
+                .tag("direction", "received")
+                .description("Avisos de alteração trocados com os outros nós")
+                .register(meterRegistry);
+    }
+
+    private static InetSocketAddress parse(String peer) {
+        int colon = peer.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Nó do cluster sem porta: " + peer);
+        }
+        return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+    }
+
+    /**
+     * Agenda o aviso após o commit de uma alteração feita neste nó.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.remote()) {
+            notifyPeers();
+        }
+    }
+
+    /**
+     * Agenda o aviso após a substituição do catálogo por este nó.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        if (!event.remote()) {
+            notifyPeers();
+        }
+    }
+
+    private void notifyPeers() {
+        if (pending.compareAndSet(false, true) && sender != null) {
+            LockSupport.unpark(sender);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        try {
+            channel = DatagramChannel.open().bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a porta " + port + " do cluster", e);
+        }
+        running = true;
+        sender = Thread.ofPlatform().name("cluster-notifier-send").daemon().start(this::send);
+        receiver = Thread.ofPlatform().name("cluster-notifier-receive").daemon().start(this::receive);
+        log.info("Cluster: nó ouvindo na porta UDP {}, avisando {}", port, peers);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(sender);
+        try {
+            channel.close();
+            sender.join();
+            receiver.join();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar a porta do cluster: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void send() {
+        while (running) {
+            LockSupport.park(this);
+            if (!pending.getAndSet(false)) {
+                continue;
+            }
+            for (InetSocketAddress peer : peers) {
+                try {
+                    channel.send(ByteBuffer.wrap(message), peer);
+                    sent.increment();
+                } catch (ClosedChannelException e) {
+                    return;
+                } catch (IOException e) {
+                    log.debug("Falha ao avisar o nó {}: {}", peer, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        while (running) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                // Ignora o próprio aviso, caso o nó esteja na sua lista de vizinhos
+                if (!ByteBuffer.wrap(message).equals(buffer)) {
+                    received.increment();
+                    broadcaster.pollNow();
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.debug("Falha ao receber aviso do cluster: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.raphaelsantos.book_catalog_pit.cluster;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.BookChange;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.BookChangesRelayedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica neste nó as alterações feitas pelos outros nós do cluster.
+ * <p>
+ * Todos os nós gravam suas alterações no mesmo outbox ({@code book_change}), que
+ * cada nó já lê para o stream de alterações. As alterações de outros nós são
+ * publicadas novamente aqui como eventos remotos, de modo que o cache de livros,
+ * os índices de busca e a versão do catálogo deste nó sejam atualizados pelos
+ * mesmos listeners das alterações locais. O estado atual dos livros cadastrados
+ * ou atualizados é lido em uma única consulta por lote de alterações.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cluster.enabled", havingValue = "true")
+public class RemoteChangeApplier {
+
+    private final BookRepository repository;
+    private final ApplicationEventPublisher events;
+    private final String node;
+
+    public RemoteChangeApplier(BookRepository repository, ApplicationEventPublisher events, ClusterNode node) {
+        this.repository = repository;
+        this.events = events;
+        this.node = node.id();
+    }
+
+    /**
+     * Aplica as alterações de outros nós entre as lidas do outbox.
+     *
+     * @param event alterações lidas do outbox
+     */
+    @EventListener
+    public void onChangesRelayed(BookChangesRelayedEvent event) {
+        List<BookChange> remote = event.changes().stream()
+                .filter(change -> change.node() != null && !change.node().equals(node))
+                .toList();
+        if (remote.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = remote.stream()
+                .filter(change -> change.bookId() != null && !BookChangedEvent.Type.DELETED.name().equals(change.type()))
+                .map(BookChange::bookId)
+                .collect(Collectors.toSet());
+        Map<Long, Book> books = new HashMap<>();
+        repository.findAllById(ids).forEach(book -> books.put(book.getId(), book));
+
+        for (BookChange change : remote) {
+            if (BookChange.RELOADED.equals(change.type())) {
+                events.publishEvent(new CatalogReloadedEvent(repository.count(), true));
+                continue;
+            }
+
+            BookChangedEvent.Type type = BookChangedEvent.Type.valueOf(change.type());
+            if (type == BookChangedEvent.Type.DELETED) {
+                events.publishEvent(BookChangedEvent.remote(type, change.bookId(), null));
+                continue;
+            }
+
+            // Sem o livro, ele já foi excluído: a exclusão vem mais adiante no outbox
+            Book book = books.get(change.bookId());
+            if (book != null) {
+                events.publishEvent(BookChangedEvent.remote(type, change.bookId(), book));
+            }
+        }
+    }
+}
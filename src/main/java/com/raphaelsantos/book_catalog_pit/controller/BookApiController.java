@@ -0,0 +1,105 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.exception.BatchSizeExceededException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookPage;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import com.raphaelsantos.book_catalog_pit.service.CatalogVersion;
+import com.raphaelsantos.book_catalog_pit.web.ETags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * API REST (JSON) de consulta ao catálogo, voltada a clientes que não
+ * precisam das páginas HTML. Usa os mesmos serviços das views Thymeleaf.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookApiController {
+
+    // Limites para proteger o banco de requisições muito grandes
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final BookService service;
+    private final CatalogVersion catalogVersion;
+    private final int defaultPageSize;
+
+    public BookApiController(BookService service,
+                             CatalogVersion catalogVersion,
+                             @Value("${catalog.page-size:20}") int defaultPageSize) {
+        this.service = service;
+        this.catalogVersion = catalogVersion;
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    /**
+     * Lista os livros de forma paginada, navegando pelos cursores devolvidos na resposta.
+     *
+     * @param cursor  cursor da página desejada (opcional)
+     * @param size    quantidade de livros por página (opcional, limitada a 100)
+     * @param request requisição atual, usada para a verificação condicional
+     * @return página com os livros e os cursores de navegação, ou {@code null} se a resposta for 304
+     */
+    @GetMapping
+    public BookPage list(@RequestParam(value = "cursor", required = false) String cursor,
+                         @RequestParam(value = "size", required = false) Integer size,
+                         WebRequest request) {
+        if (ETags.checkNotModified(request, catalogVersion.current())) {
+            return null;
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return service.listPage(cursor, pageSize);
+    }
+
+    /**
+     * Busca livros pelo termo informado, ordenados por relevância.
+     *
+     * @param q termo de busca
+     * @return livros encontrados
+     */
+    @GetMapping("/search")
+    public List<BookSummary> search(@RequestParam("q") String q) {
+        return service.findByTerm(q);
+    }
+
+    /**
+     * Retorna os dados completos de um livro.
+     *
+     * @param id      identificador do livro
+     * @param request requisição atual, usada para a verificação condicional
+     * @return livro encontrado, ou {@code null} se a resposta for 304
+     */
+    @GetMapping("/{id}")
+    public Book detail(@PathVariable Long id, WebRequest request) {
+        Book book = service.findById(id);
+        if (ETags.checkNotModified(request, book)) {
+            return null;
+        }
+        return book;
+    }
+
+    /**
+     * Retorna vários livros em uma única requisição, na ordem dos IDs informados.
+     * IDs inexistentes são ignorados.
+     *
+     * @param ids identificadores dos livros (no máximo 100)
+     * @return livros encontrados
+     */
+    @GetMapping("/batch")
+    public List<Book> batch(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BatchSizeExceededException(ids.size(), MAX_BATCH_SIZE);
+        }
+        return service.findByIds(ids);
+    }
+}
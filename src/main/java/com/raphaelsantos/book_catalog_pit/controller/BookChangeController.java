@@ -0,0 +1,39 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.web.BookChangeBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador responsável pelo stream de alterações do catálogo, para que
+ * clientes mantenham cópias atualizadas sem consultar {@code /books} periodicamente.
+ */
+@RestController
+public class BookChangeController {
+
+    private final BookChangeBroadcaster broadcaster;
+
+    public BookChangeController(BookChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Envia as alterações do catálogo como Server-Sent Events. Cada evento tem
+     * como ID a posição da alteração, de modo que o navegador, ao reconectar,
+     * informe a última recebida no cabeçalho {@code Last-Event-ID} e o stream
+     * continue dali.
+     *
+     * @param lastEventId posição da última alteração recebida, enviada pelo navegador ao reconectar
+     * @param from        posição a partir da qual retomar, quando não há {@code Last-Event-ID}
+     * @return stream de alterações
+     */
+    @GetMapping(value = "/books/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                              @RequestParam(required = false) Long from) {
+        return broadcaster.subscribe(lastEventId != null ? lastEventId : from);
+    }
+}
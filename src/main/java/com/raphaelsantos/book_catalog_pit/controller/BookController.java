@@ -1,14 +1,30 @@
 package com.raphaelsantos.book_catalog_pit.controller;
 
+import com.raphaelsantos.book_catalog_pit.exception.BookVersionConflictException;
+import com.raphaelsantos.book_catalog_pit.exception.SearchTermTooShortException;
 import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.search.BookFacets;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateCandidate;
+import com.raphaelsantos.book_catalog_pit.search.SuggestionIndex;
+import com.raphaelsantos.book_catalog_pit.service.BookFilter;
+import com.raphaelsantos.book_catalog_pit.service.BookPage;
 import com.raphaelsantos.book_catalog_pit.service.BookService;
+import com.raphaelsantos.book_catalog_pit.service.BookWriteBehind;
+import com.raphaelsantos.book_catalog_pit.service.CatalogVersion;
+import com.raphaelsantos.book_catalog_pit.web.ETags;
+import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,38 +34,128 @@ import java.util.List;
 @RequestMapping("/books")
 public class BookController {
 
+    // Quantidade de gêneros exibidos nas facetas da listagem
+    private static final int GENRE_FACETS = 10;
+
     private final BookService service;
+    private final BookFacets facets;
+    private final SuggestionIndex suggestions;
+    private final CatalogVersion catalogVersion;
+    private final BookWriteBehind writeBehind;
+    private final int pageSize;
 
-    public BookController(BookService service) {
+    public BookController(BookService service,
+                          BookFacets facets,
+                          SuggestionIndex suggestions,
+                          CatalogVersion catalogVersion,
+                          BookWriteBehind writeBehind,
+                          @Value("${catalog.page-size:20}") int pageSize) {
         this.service = service;
+        this.facets = facets;
+        this.suggestions = suggestions;
+        this.catalogVersion = catalogVersion;
+        this.writeBehind = writeBehind;
+        this.pageSize = pageSize;
     }
 
     /**
      * Exibe a página de listagem de livros.
      * Permite também a busca opcional por título ou autor através do parâmetro "q".
+     * Sem termo de busca, a listagem é paginada pelo cursor informado em "cursor".
+     * Os resultados podem ser filtrados por gênero e intervalo de anos, e a página
+     * exibe as facetas com a quantidade de livros por gênero e por década, contadas
+     * sobre a listagem ou a busca atual e respeitando os filtros ativos.
+     * Se o catálogo não mudou desde a última visita, responde 304 sem consultar o banco,
+     * a menos que haja uma gravação da sessão descartada por erro a exibir.
+     * Termos de busca muito curtos não são pesquisados e a página exibe um aviso.
      *
-     * @param q     termo de busca (opcional)
-     * @param model modelo utilizado para enviar dados à view
-     * @return nome da view de listagem de livros
+     * @param q        termo de busca (opcional)
+     * @param cursor   cursor da página desejada (opcional)
+     * @param genre    gênero (opcional)
+     * @param yearFrom ano de publicação mínimo (opcional)
+     * @param yearTo   ano de publicação máximo (opcional)
+     * @param request  requisição atual, usada para a verificação condicional
+     * @param model    modelo utilizado para enviar dados à view
+     * @return nome da view de listagem de livros, ou {@code null} se a resposta for 304
      */
     @GetMapping
-    public String list(@RequestParam(value = "q", required = false) String q, Model model) {
-        List<Book> books = service.findByTerm(q);
-        model.addAttribute("books", books);
+    public String list(@RequestParam(value = "q", required = false) String q,
+                       @RequestParam(value = "cursor", required = false) String cursor,
+                       @RequestParam(value = "genre", required = false) String genre,
+                       @RequestParam(value = "yearFrom", required = false) Integer yearFrom,
+                       @RequestParam(value = "yearTo", required = false) Integer yearTo,
+                       WebRequest request,
+                       Model model) {
+        // Uma gravação descartada não muda a versão do catálogo, então a página não pode ser reaproveitada
+        String writeError = takeWriteErrors(request);
+        if (writeError != null) {
+            model.addAttribute("writeError", writeError);
+        }
+        // Páginas com mensagem de sucesso não são reaproveitadas pelo navegador
+        if (writeError == null && !model.containsAttribute("msg")
+                && ETags.checkNotModified(request, catalogVersion.current())) {
+            return null;
+        }
+
+        BookFilter filter = new BookFilter(genre, yearFrom, yearTo);
+        BookFacets.Facets shown;
+        if (q == null || q.isBlank()) {
+            BookPage page = service.listPage(cursor, pageSize, filter);
+            model.addAttribute("books", page.books());
+            model.addAttribute("nextCursor", page.nextCursor());
+            model.addAttribute("prevCursor", page.prevCursor());
+            shown = facets.facets(filter, GENRE_FACETS);
+        } else {
+            List<BookSummary> found;
+            try {
+                // Sem filtros, para contar as facetas sobre os resultados da busca
+                found = service.findByTerm(q);
+            } catch (SearchTermTooShortException e) {
+                found = List.of();
+                model.addAttribute("warning", e.getMessage());
+            }
+            model.addAttribute("books", found.stream().filter(filter::matches).toList());
+            shown = BookFacets.of(found, filter, GENRE_FACETS);
+        }
         model.addAttribute("q", q == null ? "" : q);
+        model.addAttribute("filter", filter);
+        model.addAttribute("genreFacets", shown.genres());
+        model.addAttribute("decadeFacets", shown.decades());
         return "books/list";
     }
 
+    /**
+     * Sugere títulos e autores para o preenchimento automático da busca,
+     * respondidos a partir do índice em memória, sem consultar o banco.
+     *
+     * @param prefix texto digitado
+     * @param limit  quantidade máxima de sugestões
+     * @return sugestões em JSON, da mais popular para a menos popular
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public List<String> suggest(@RequestParam("prefix") String prefix,
+                                @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        return suggestions.suggest(prefix, limit);
+    }
+
     /**
      * Exibe os detalhes de um livro específico.
+     * Se o livro não mudou desde a última visita, responde 304 sem renderizar a página.
      *
-     * @param id    identificador do livro
-     * @param model modelo utilizado para enviar dados à view
-     * @return nome da view de detalhes do livro
+     * @param id      identificador do livro
+     * @param request requisição atual, usada para a verificação condicional
+     * @param model   modelo utilizado para enviar dados à view
+     * @return nome da view de detalhes do livro, ou {@code null} se a resposta for 304
      */
     @GetMapping("/{id}")
-    public String detail(@PathVariable Long id, Model model) {
-        model.addAttribute("book", service.findById(id));
+    public String detail(@PathVariable Long id, WebRequest request, Model model) {
+        Book book = service.findById(id);
+        if (ETags.checkNotModified(request, book)) {
+            return null;
+        }
+
+        model.addAttribute("book", book);
         return "books/detail";
     }
 
@@ -69,22 +175,33 @@ public class BookController {
     /**
      * Processa o cadastro de um novo livro.
      * Em caso de erro de validação, retorna ao formulário exibindo as mensagens.
+     * Com o write-behind habilitado, o livro é enfileirado e gravado em segundo plano.
+     * Se já houver um livro com título e autor parecidos, o cadastro é feito com um aviso.
      *
-     * @param book   objeto preenchido a partir do formulário
-     * @param result resultado da validação
-     * @param ra     atributos para mensagens após redirecionamento
+     * @param book    objeto preenchido a partir do formulário
+     * @param result  resultado da validação
+     * @param ra      atributos para mensagens após redirecionamento
+     * @param session sessão que aguardará a gravação antes da próxima leitura
      * @return redirecionamento para a listagem ou retorno ao formulário em caso de erro
      */
     @PostMapping
     public String create(@Valid @ModelAttribute("book") Book book,
                          BindingResult result,
                          RedirectAttributes ra,
-                         Model model) {
+                         Model model,
+                         HttpSession session) {
         if (result.hasErrors()) {
             model.addAttribute("action", "create");
             return "books/form";
         }
-        service.save(book);
+
+        // Consulta antes de gravar, para que o próprio livro não seja encontrado
+        warnDuplicates(ra, null, book);
+        if (writeBehind.isEnabled()) {
+            track(session, writeBehind.submitCreate(book));
+        } else {
+            service.save(book);
+        }
         ra.addFlashAttribute("msg", "Livro cadastrado com sucesso!");
         return "redirect:/books";
     }
@@ -105,12 +222,16 @@ public class BookController {
 
     /**
      * Processa a atualização de um livro existente.
-     * Em caso de erro de validação, retorna ao formulário exibindo as mensagens.
+     * Em caso de erro de validação, ou se o livro foi alterado por outra pessoa
+     * desde que o formulário foi aberto, retorna ao formulário exibindo as mensagens.
+     * Com o write-behind habilitado, a atualização é enfileirada e gravada em segundo plano.
+     * Se já houver outro livro com título e autor parecidos, a atualização é feita com um aviso.
      *
-     * @param id     identificador do livro
-     * @param book   objeto preenchido a partir do formulário
-     * @param result resultado da validação
-     * @param ra     atributos para mensagens após redirecionamento
+     * @param id      identificador do livro
+     * @param book    objeto preenchido a partir do formulário
+     * @param result  resultado da validação
+     * @param ra      atributos para mensagens após redirecionamento
+     * @param session sessão que aguardará a gravação antes da próxima leitura
      * @return redirecionamento para a listagem ou retorno ao formulário em caso de erro
      */
     @PostMapping("/{id}")
@@ -118,12 +239,25 @@ public class BookController {
                          @Valid @ModelAttribute("book") Book book,
                          BindingResult result,
                          RedirectAttributes ra,
-                         Model model) {
+                         Model model,
+                         HttpSession session) {
         if (result.hasErrors()) {
             model.addAttribute("action", "update");
             return "books/form";
         }
-        service.update(id, book);
+
+        try {
+            if (writeBehind.isEnabled()) {
+                track(session, writeBehind.submitUpdate(id, book));
+            } else {
+                service.update(id, book);
+            }
+        } catch (BookVersionConflictException e) {
+            result.reject("conflict", "Este livro foi alterado por outra pessoa. Recarregue a página antes de salvar.");
+            model.addAttribute("action", "update");
+            return "books/form";
+        }
+        warnDuplicates(ra, id, book);
         ra.addFlashAttribute("msg", "Livro atualizado com sucesso!");
         return "redirect:/books";
     }
@@ -141,4 +275,53 @@ public class BookController {
         ra.addFlashAttribute("msg", "Livro excluído com sucesso!");
         return "redirect:/books";
     }
+
+    /**
+     * Guarda o envio na sessão, para que a próxima leitura aguarde a gravação e informe se ela falhou.
+     */
+    private void track(HttpSession session, long ticket) {
+        List<Long> tickets = new ArrayList<>();
+        if (session.getAttribute(BookWriteBehind.SESSION_TICKETS) instanceof List<?> previous) {
+            previous.forEach(t -> tickets.add((Long) t));
+        }
+        tickets.add(ticket);
+        session.setAttribute(BookWriteBehind.SESSION_TICKETS, tickets);
+        session.setAttribute(BookWriteBehind.SESSION_TICKET, ticket);
+    }
+
+    /**
+     * Retorna as falhas dos envios da sessão já processados, mantendo na sessão apenas os que ainda estão na fila.
+     */
+    private String takeWriteErrors(WebRequest request) {
+        if (!(request.getAttribute(BookWriteBehind.SESSION_TICKETS, RequestAttributes.SCOPE_SESSION)
+                instanceof List<?> submitted)) {
+            return null;
+        }
+        List<Long> tickets = submitted.stream().map(Long.class::cast).toList();
+        List<Long> waiting = new ArrayList<>();
+        for (Long ticket : tickets) {
+            if (!writeBehind.isFlushed(ticket)) {
+                waiting.add(ticket);
+            }
+        }
+        List<String> failures = writeBehind.takeFailures(tickets);
+        if (waiting.isEmpty()) {
+            request.removeAttribute(BookWriteBehind.SESSION_TICKETS, RequestAttributes.SCOPE_SESSION);
+        } else {
+            request.setAttribute(BookWriteBehind.SESSION_TICKETS, waiting, RequestAttributes.SCOPE_SESSION);
+        }
+        return failures.isEmpty() ? null : String.join(" ", failures);
+    }
+
+    /**
+     * Adiciona um aviso à próxima página caso o catálogo já tenha um livro parecido com o informado.
+     */
+    private void warnDuplicates(RedirectAttributes ra, Long id, Book book) {
+        List<DuplicateCandidate> found = service.findDuplicates(id, book.getTitle(), book.getAuthor());
+        if (!found.isEmpty()) {
+            DuplicateCandidate closest = found.getFirst();
+            ra.addFlashAttribute("warning", "Possível duplicata: o catálogo já tem \"" + closest.title()
+                    + "\", de " + closest.author() + " (ID " + closest.id() + ").");
+        }
+    }
 }
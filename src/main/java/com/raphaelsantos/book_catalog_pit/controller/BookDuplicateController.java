@@ -0,0 +1,55 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.search.DuplicateCandidate;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateReport;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateScanner;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador responsável pela detecção de livros duplicados no catálogo.
+ */
+@RestController
+@RequestMapping("/api/books/duplicates")
+public class BookDuplicateController {
+
+    // Limite de grupos detalhados no relatório da varredura
+    private static final int MAX_CLUSTERS = 1000;
+
+    private final BookService service;
+    private final DuplicateScanner scanner;
+
+    public BookDuplicateController(BookService service, DuplicateScanner scanner) {
+        this.service = service;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Varre o catálogo inteiro e agrupa os livros provavelmente duplicados.
+     *
+     * @param limit quantidade de grupos detalhados no relatório (opcional, limitada a 1000)
+     * @return totais da varredura e os maiores grupos
+     */
+    @GetMapping
+    public DuplicateReport scan(@RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return scanner.scan(Math.max(0, Math.min(limit, MAX_CLUSTERS)));
+    }
+
+    /**
+     * Verifica se o catálogo já tem livros com título e autor parecidos com os informados.
+     *
+     * @param title  título do livro
+     * @param author autor do livro
+     * @return livros parecidos, do mais parecido para o menos parecido
+     */
+    @GetMapping("/check")
+    public List<DuplicateCandidate> check(@RequestParam("title") String title,
+                                          @RequestParam("author") String author) {
+        return service.findDuplicates(null, title, author);
+    }
+}
@@ -0,0 +1,59 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.exception.UnsupportedExportFormatException;
+import com.raphaelsantos.book_catalog_pit.service.BookExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controlador responsável pela exportação completa do catálogo.
+ * Os registros são escritos diretamente na resposta à medida que são lidos do banco.
+ */
+@RestController
+@RequestMapping("/books/export")
+public class BookExportController {
+
+    private final BookExportService service;
+
+    public BookExportController(BookExportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Exporta o catálogo no formato solicitado.
+     *
+     * @param format   formato da exportação: {@code csv} (padrão) ou {@code jsonl}
+     * @param response resposta HTTP na qual os registros são escritos
+     * @throws IOException em caso de erro na escrita da resposta
+     */
+    @GetMapping
+    public void export(@RequestParam(value = "format", defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"jsonl".equalsIgnoreCase(format)) {
+            throw new UnsupportedExportFormatException(format);
+        }
+
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"books." + (csv ? "csv" : "jsonl") + "\"");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        if (csv) {
+            service.exportCsv(writer);
+        } else {
+            service.exportJsonLines(writer);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.service.BookImportService;
+import com.raphaelsantos.book_catalog_pit.service.ImportReport;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controlador responsável pela importação em lote de livros.
+ * O corpo da requisição é lido como fluxo, sem ser carregado inteiro em memória.
+ */
+@RestController
+@RequestMapping("/books/import")
+public class BookImportController {
+
+    private final BookImportService service;
+
+    public BookImportController(BookImportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Importa livros a partir de um arquivo CSV com cabeçalho.
+     *
+     * @param body conteúdo do arquivo, em UTF-8
+     * @return relatório com a quantidade de livros importados e os erros por linha
+     * @throws IOException em caso de erro na leitura da requisição
+     */
+    @PostMapping(consumes = "text/csv")
+    public ImportReport importCsv(InputStream body) throws IOException {
+        return service.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Importa livros a partir de um arquivo JSON Lines (um objeto por linha).
+     *
+     * @param body conteúdo do arquivo, em UTF-8
+     * @return relatório com a quantidade de livros importados e os erros por linha
+     * @throws IOException em caso de erro na leitura da requisição
+     */
+    @PostMapping(consumes = {"application/x-ndjson", "application/jsonl"})
+    public ImportReport importJsonLines(InputStream body) throws IOException {
+        return service.importJsonLines(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.service.BookSnapshotService;
+import com.raphaelsantos.book_catalog_pit.service.SnapshotReport;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Controlador responsável pelo snapshot binário do catálogo.
+ */
+@RestController
+@RequestMapping("/books/snapshot")
+public class BookSnapshotController {
+
+    private final BookSnapshotService service;
+
+    public BookSnapshotController(BookSnapshotService service) {
+        this.service = service;
+    }
+
+    /**
+     * Envia o snapshot do catálogo, gerado à medida que os livros são lidos do banco.
+     *
+     * @param response resposta HTTP na qual o snapshot é escrito
+     * @throws IOException em caso de erro na escrita da resposta
+     */
+    @GetMapping
+    public void download(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.snapshot\"");
+        service.write(response.getOutputStream());
+    }
+
+    /**
+     * Grava o snapshot do catálogo no arquivo configurado no servidor.
+     *
+     * @return quantidade de livros gravados e duração
+     * @throws IOException em caso de erro de escrita
+     */
+    @PostMapping
+    public SnapshotReport save() throws IOException {
+        long started = System.nanoTime();
+        long books = service.save();
+        return new SnapshotReport(books, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Substitui o catálogo pelo conteúdo do arquivo de snapshot do servidor.
+     *
+     * @return quantidade de livros restaurados e duração
+     * @throws IOException em caso de erro de leitura
+     */
+    @PostMapping("/restore")
+    public SnapshotReport restore() throws IOException {
+        long started = System.nanoTime();
+        long books = service.restore();
+        return new SnapshotReport(books, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,63 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * API de consulta ao catálogo sem bloquear threads de requisição.
+ * <p>
+ * Com {@code Accept: application/x-ndjson}, listagem e busca são enviadas um livro
+ * por linha, à medida que são lidos, e o envio acompanha o ritmo do cliente;
+ * com {@code application/json}, a resposta é a lista completa.
+ */
+@RestController
+@RequestMapping("/api/stream/books")
+public class BookStreamController {
+
+    private final BookStreamService service;
+
+    public BookStreamController(BookStreamService service) {
+        this.service = service;
+    }
+
+    /**
+     * Lista todos os livros em ordem de ID.
+     *
+     * @return fluxo com os resumos dos livros
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<BookSummary> list() {
+        return service.listAll();
+    }
+
+    /**
+     * Realiza a busca por termo.
+     *
+     * @param q termo de busca
+     * @return fluxo com os livros encontrados, ordenados por relevância
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<BookSummary> search(@RequestParam(value = "q", required = false) String q) {
+        return service.findByTerm(q);
+    }
+
+    /**
+     * Retorna os dados completos de um livro.
+     *
+     * @param id identificador do livro
+     * @return livro encontrado
+     */
+    @GetMapping("/{id}")
+    public Mono<Book> detail(@PathVariable Long id) {
+        return service.findById(id);
+    }
+}
@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando uma consulta em lote pede mais itens que o permitido.
+ * Mapeada para a resposta HTTP 400 (BAD_REQUEST).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(int requested, int max) {
+        super("Quantidade de itens solicitada (" + requested + ") excede o máximo de " + max);
+    }
+}
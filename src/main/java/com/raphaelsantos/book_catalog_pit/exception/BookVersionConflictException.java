@@ -0,0 +1,16 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando um livro é atualizado a partir de uma versão
+ * desatualizada, ou seja, alguém o alterou depois que os dados foram lidos.
+ * Mapeada para a resposta HTTP 409 (CONFLICT).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookVersionConflictException extends RuntimeException {
+    public BookVersionConflictException(Long id) {
+        super("O livro " + id + " foi alterado por outro usuário");
+    }
+}
@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o arquivo de snapshot do catálogo não existe ou não pode ser lido.
+ * Mapeada para a resposta HTTP 422 (UNPROCESSABLE_ENTITY).
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class InvalidSnapshotException extends RuntimeException {
+    public InvalidSnapshotException(String reason) {
+        super("Snapshot do catálogo inválido: " + reason);
+    }
+}
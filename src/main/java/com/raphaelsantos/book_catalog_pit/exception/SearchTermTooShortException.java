@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o termo de busca é curto demais para uma busca seletiva.
+ * Mapeada para a resposta HTTP 400 (BAD_REQUEST).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class SearchTermTooShortException extends RuntimeException {
+    public SearchTermTooShortException(int minLength) {
+        super("O termo de busca deve ter ao menos " + minLength + " caracteres.");
+    }
+}
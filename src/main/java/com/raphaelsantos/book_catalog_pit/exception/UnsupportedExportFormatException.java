@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o formato de exportação solicitado não é suportado.
+ * Mapeada para a resposta HTTP 400 (BAD_REQUEST).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String format) {
+        super("Formato de exportação não suportado: " + format);
+    }
+}
@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de gravações assíncronas está cheia e não liberou espaço a tempo.
+ * Mapeada para a resposta HTTP 503 (SERVICE_UNAVAILABLE).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteQueueFullException extends RuntimeException {
+    public WriteQueueFullException(int capacity) {
+        super("Fila de gravação cheia (" + capacity + " livros pendentes). Tente novamente em instantes.");
+    }
+}
@@ -0,0 +1,69 @@
+package com.raphaelsantos.book_catalog_pit.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Conta os comandos SQL executados e as entidades carregadas pela thread atual.
+ * É registrado no Hibernate como {@link StatementInspector} e {@link Interceptor}
+ * (veja {@code application.properties}) e lido pelo
+ * {@link com.raphaelsantos.book_catalog_pit.web.QueryCountFilter} ao fim de cada requisição.
+ * Com um {@link #limit(long)}, o comando que passa do limite falha antes de ser executado.
+ * <p>
+ * Os testes podem usar {@link #reset()} e {@link #queries()} para verificar
+ * quantas consultas uma operação executa, detectando problemas de N+1.
+ */
+public class QueryCounter implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[3]);
+
+    @Override
+    public String inspect(String sql) {
+        long[] counts = COUNTS.get();
+        long executed = ++counts[0];
+        if (counts[2] > 0 && executed > counts[2]) {
+            throw new IllegalStateException("Comando SQL número " + executed
+                    + " passou do limite de " + counts[2] + ": " + sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTS.get()[1]++;
+        return false;
+    }
+
+    /**
+     * Zera as contagens da thread atual.
+     */
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[0] = 0;
+        counts[1] = 0;
+    }
+
+    /**
+     * Faz falhar, na thread atual, os comandos SQL além de {@code max} desde o último {@link #reset()}.
+     *
+     * @param max quantidade máxima de comandos, ou {@code 0} para não limitar
+     */
+    public static void limit(long max) {
+        COUNTS.get()[2] = max;
+    }
+
+    /**
+     * @return comandos SQL executados pela thread atual desde o último {@link #reset()}
+     */
+    public static long queries() {
+        return COUNTS.get()[0];
+    }
+
+    /**
+     * @return entidades carregadas pela thread atual desde o último {@link #reset()}
+     */
+    public static long entities() {
+        return COUNTS.get()[1];
+    }
+}
@@ -4,17 +4,36 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 /**
  * Entidade que representa um livro no catálogo.
  * Mapeada para a tabela BOOK no banco de dados.
+ * O ID vem de uma sequence com alocação em blocos, o que permite ao
+ * Hibernate agrupar os inserts em lotes JDBC.
+ * A versão e a data da última alteração servem tanto para o controle de
+ * concorrência otimista quanto para as respostas HTTP condicionais.
+ * O esquema da tabela é criado pelas migrações em {@code db/migration}.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_genre", columnList = "genre"),
+        @Index(name = "idx_book_publication_year", columnList = "publication_year"),
+        @Index(name = "idx_book_title", columnList = "title"),
+        @Index(name = "idx_book_author", columnList = "author")
+})
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O título é obrigatório")
@@ -36,6 +55,12 @@ public class Book {
     @Size(max = 2000, message = "A sinopse deve ter no máximo 2000 caracteres")
     private String synopsis;
 
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     public Long getId() {
         return id;
     }
@@ -83,5 +108,20 @@ public class Book {
     public void setSynopsis(String synopsis) {
         this.synopsis = synopsis;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
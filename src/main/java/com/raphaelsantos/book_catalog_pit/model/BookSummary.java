@@ -0,0 +1,43 @@
+package com.raphaelsantos.book_catalog_pit.model;
+
+/**
+ * Projeção somente leitura de um {@link Book} com os campos exibidos na listagem.
+ * Não inclui a sinopse e não é gerenciada pelo contexto de persistência,
+ * evitando o custo de carregar e monitorar entidades completas.
+ */
+public class BookSummary {
+
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final Integer publicationYear;
+    private final String genre;
+
+    public BookSummary(Long id, String title, String author, Integer publicationYear, String genre) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.publicationYear = publicationYear;
+        this.genre = genre;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public Integer getPublicationYear() {
+        return publicationYear;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+}
@@ -1,13 +1,28 @@
 package com.raphaelsantos.book_catalog_pit.repository;
 
 import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório JPA responsável pelo acesso aos dados da entidade {@link Book}.
  * Herda operações CRUD básicas e define consultas específicas.
+ * As consultas de listagem e busca retornam {@link BookSummary}, que não
+ * carrega a sinopse nem passa pelo contexto de persistência.
+ * As consultas usadas pelo {@code BookService} sem transação própria rodam em
+ * transações somente leitura.
  */
 public interface BookRepository extends JpaRepository<Book, Long> {
 
@@ -19,5 +34,130 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param author parte do nome do autor a ser pesquisada
      * @return lista de livros que atendem ao filtro
      */
-    List<Book> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author);
+    List<BookSummary> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author);
+
+    /**
+     * Versão limitada de {@link #findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String, String)},
+     * que interrompe a varredura assim que encontra a quantidade de livros informada.
+     *
+     * @param title  parte do título a ser pesquisada
+     * @param author parte do nome do autor a ser pesquisada
+     * @param limit  quantidade máxima de livros
+     * @return lista de livros que atendem ao filtro
+     */
+    @Transactional(readOnly = true)
+    List<BookSummary> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author,
+                                                                                   Limit limit);
+
+    /**
+     * Lista todos os livros na forma resumida.
+     *
+     * @return resumo de todos os livros cadastrados
+     */
+    @Transactional(readOnly = true)
+    List<BookSummary> findSummariesBy();
+
+    /**
+     * Busca o resumo dos livros com os IDs informados.
+     *
+     * @param ids identificadores dos livros
+     * @return resumos encontrados, sem ordem garantida
+     */
+    @Transactional(readOnly = true)
+    List<BookSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Retorna a primeira página da listagem, ordenada por ID.
+     *
+     * @param limit quantidade máxima de livros retornados
+     * @return livros com os menores IDs
+     */
+    List<BookSummary> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Retorna os livros com ID maior que o informado, em ordem crescente.
+     * Usada para avançar na paginação por chave sem recorrer a OFFSET.
+     *
+     * @param id    ID de referência (exclusivo)
+     * @param limit quantidade máxima de livros retornados
+     * @return livros posteriores ao ID informado
+     */
+    List<BookSummary> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Retorna os livros com ID menor que o informado, em ordem decrescente.
+     * Usada para voltar na paginação por chave sem recorrer a OFFSET.
+     *
+     * @param id    ID de referência (exclusivo)
+     * @param limit quantidade máxima de livros retornados
+     * @return livros anteriores ao ID informado, do mais próximo ao mais distante
+     */
+    List<BookSummary> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    /**
+     * Versão filtrada de {@link #findByIdGreaterThanOrderByIdAsc(Long, Limit)}.
+     * Filtros nulos são ignorados.
+     *
+     * @param id       ID de referência (exclusivo)
+     * @param genre    gênero exato (opcional)
+     * @param yearFrom ano de publicação mínimo (opcional)
+     * @param yearTo   ano de publicação máximo (opcional)
+     * @param pageable quantidade máxima de livros retornados
+     * @return livros posteriores ao ID informado que atendem aos filtros
+     */
+    @Query("""
+            select new com.raphaelsantos.book_catalog_pit.model.BookSummary(
+                b.id, b.title, b.author, b.publicationYear, b.genre)
+            from Book b
+            where b.id > :id
+              and (:genre is null or b.genre = :genre)
+              and (:yearFrom is null or b.publicationYear >= :yearFrom)
+              and (:yearTo is null or b.publicationYear <= :yearTo)
+            order by b.id asc
+            """)
+    List<BookSummary> findFilteredAfter(@Param("id") Long id,
+                                        @Param("genre") String genre,
+                                        @Param("yearFrom") Integer yearFrom,
+                                        @Param("yearTo") Integer yearTo,
+                                        Pageable pageable);
+
+    /**
+     * Versão filtrada de {@link #findByIdLessThanOrderByIdDesc(Long, Limit)}.
+     * Filtros nulos são ignorados.
+     *
+     * @param id       ID de referência (exclusivo)
+     * @param genre    gênero exato (opcional)
+     * @param yearFrom ano de publicação mínimo (opcional)
+     * @param yearTo   ano de publicação máximo (opcional)
+     * @param pageable quantidade máxima de livros retornados
+     * @return livros anteriores ao ID informado que atendem aos filtros, do mais próximo ao mais distante
+     */
+    @Query("""
+            select new com.raphaelsantos.book_catalog_pit.model.BookSummary(
+                b.id, b.title, b.author, b.publicationYear, b.genre)
+            from Book b
+            where b.id < :id
+              and (:genre is null or b.genre = :genre)
+              and (:yearFrom is null or b.publicationYear >= :yearFrom)
+              and (:yearTo is null or b.publicationYear <= :yearTo)
+            order by b.id desc
+            """)
+    List<BookSummary> findFilteredBefore(@Param("id") Long id,
+                                         @Param("genre") String genre,
+                                         @Param("yearFrom") Integer yearFrom,
+                                         @Param("yearTo") Integer yearTo,
+                                         Pageable pageable);
+
+    /**
+     * Percorre todos os livros em ordem de ID por meio de um cursor somente
+     * de avanço, buscando as linhas do banco em blocos. Deve ser consumido
+     * dentro de uma transação e fechado ao final.
+     *
+     * @return fluxo com todos os livros cadastrados
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,266 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.BookFilter;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contagens de livros por gênero e por década de publicação, exibidas como
+ * facetas na listagem. As contagens são carregadas uma vez na subida da
+ * aplicação e mantidas incrementalmente a cada {@link BookChangedEvent},
+ * evitando consultas {@code GROUP BY} a cada requisição. Numa recarga, as novas
+ * contagens são montadas sem a trava e trocadas de uma vez, com as alterações
+ * recebidas nesse intervalo reaplicadas.
+ * <p>
+ * As contagens são guardadas por gênero e ano, para que as facetas respeitem os filtros
+ * ativos: os gêneros contam apenas os livros do intervalo de anos filtrado, e as décadas
+ * apenas os do gênero filtrado. Cada faceta ignora o próprio filtro, para que seja possível
+ * trocar de gênero ou de década. Nas buscas por termo, as facetas são contadas sobre os
+ * resultados da busca ({@link #of(Collection, BookFilter, int)}).
+ */
+@Component
+public class BookFacets {
+
+    private final CatalogSource source;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Counts counts = new Counts();
+    // Alterações recebidas durante uma recarga, reaplicadas sobre as novas contagens
+    private List<BookChangedEvent> pending;
+
+    public BookFacets(CatalogSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Recarrega as contagens a partir de todos os livros do catálogo ({@link CatalogSource}).
+     * As contagens anteriores continuam em uso até a troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Counts loaded = new Counts();
+            try {
+                source.forEach(book -> loaded.add(book.getId(), Key.of(book.getGenre(), book.getPublicationYear())));
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                counts = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Atualiza as contagens após o commit de cada alteração.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            counts.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega as contagens quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Retorna os gêneros com mais livros no catálogo inteiro.
+     *
+     * @param limit quantidade máxima de gêneros
+     * @return gêneros ordenados pela quantidade de livros, da maior para a menor
+     */
+    public List<GenreFacet> genres(int limit) {
+        return facets(BookFilter.NONE, limit).genres();
+    }
+
+    /**
+     * Retorna as décadas de publicação que possuem livros no catálogo inteiro.
+     *
+     * @return décadas em ordem cronológica
+     */
+    public List<DecadeFacet> decades() {
+        return facets(BookFilter.NONE, 0).decades();
+    }
+
+    /**
+     * Conta os livros do catálogo que atendem aos filtros informados.
+     *
+     * @param filter     filtros ativos na listagem
+     * @param genreLimit quantidade máxima de gêneros
+     * @return facetas de gênero e de década
+     */
+    public Facets facets(BookFilter filter, int genreLimit) {
+        lock.readLock().lock();
+        try {
+            return count(counts.counts, filter, genreLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Conta os livros de uma lista, como os resultados de uma busca, que atendem aos filtros informados.
+     *
+     * @param books      livros a contar, sem os filtros aplicados
+     * @param filter     filtros ativos na listagem
+     * @param genreLimit quantidade máxima de gêneros
+     * @return facetas de gênero e de década
+     */
+    public static Facets of(Collection<BookSummary> books, BookFilter filter, int genreLimit) {
+        Map<Key, Long> counts = new HashMap<>();
+        for (BookSummary book : books) {
+            counts.merge(Key.of(book.getGenre(), book.getPublicationYear()), 1L, Long::sum);
+        }
+        return count(counts, filter, genreLimit);
+    }
+
+    private static Facets count(Map<Key, Long> counts, BookFilter filter, int genreLimit) {
+        Map<String, Long> genres = new HashMap<>();
+        TreeMap<Integer, Long> decades = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            if (key.genre() != null && filter.matchesYear(key.year())) {
+                genres.merge(key.genre(), count, Long::sum);
+            }
+            if (key.year() != null && filter.matchesGenre(key.genre())) {
+                decades.merge(Math.floorDiv(key.year(), 10) * 10, count, Long::sum);
+            }
+        });
+
+        List<GenreFacet> genreFacets = genres.entrySet().stream()
+                .map(e -> new GenreFacet(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(GenreFacet::count).reversed()
+                        .thenComparing(GenreFacet::genre))
+                .limit(genreLimit)
+                .toList();
+        List<DecadeFacet> decadeFacets = new ArrayList<>(decades.size());
+        decades.forEach((decade, count) -> decadeFacets.add(new DecadeFacet(decade, decade + 9, count)));
+        return new Facets(genreFacets, decadeFacets);
+    }
+
+    /**
+     * Contagens do catálogo, substituídas por inteiro a cada recarga.
+     */
+    private static final class Counts {
+
+        // ID do livro -> facetas atuais, usado para desfazer a contagem anterior
+        private final Map<Long, Key> keys = new HashMap<>();
+        // Gênero e ano -> quantidade de livros
+        private final Map<Key, Long> counts = new HashMap<>();
+
+        private void apply(BookChangedEvent event) {
+            remove(event.bookId());
+            if (event.type() != BookChangedEvent.Type.DELETED) {
+                Book book = event.book();
+                add(book.getId(), Key.of(book.getGenre(), book.getPublicationYear()));
+            }
+        }
+
+        private void add(Long id, Key key) {
+            keys.put(id, key);
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        private void remove(Long id) {
+            Key key = keys.remove(id);
+            if (key != null) {
+                counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * Facetas de um livro: gênero e ano de publicação.
+     */
+    private record Key(String genre, Integer year) {
+
+        static Key of(String genre, Integer year) {
+            return new Key(genre == null || genre.isBlank() ? null : genre, year);
+        }
+    }
+
+    /**
+     * Facetas exibidas na listagem.
+     *
+     * @param genres  gêneros com mais livros, da maior quantidade para a menor
+     * @param decades décadas com livros, em ordem cronológica
+     */
+    public record Facets(List<GenreFacet> genres, List<DecadeFacet> decades) {
+    }
+
+    /**
+     * Quantidade de livros de um gênero.
+     *
+     * @param genre gênero
+     * @param count quantidade de livros
+     */
+    public record GenreFacet(String genre, long count) {
+    }
+
+    /**
+     * Quantidade de livros publicados em uma década.
+     *
+     * @param yearFrom primeiro ano da década
+     * @param yearTo   último ano da década
+     * @param count    quantidade de livros
+     */
+    public record DecadeFacet(int yearFrom, int yearTo, long count) {
+    }
+}
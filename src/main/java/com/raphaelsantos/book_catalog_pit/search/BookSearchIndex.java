@@ -0,0 +1,554 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import com.raphaelsantos.book_catalog_pit.store.LongIntHashMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória sobre título, autor, gênero e sinopse dos livros.
+ * Substitui as consultas {@code LIKE '%termo%'} por uma interseção de listas
+ * de ocorrências, com ordenação por relevância no estilo BM25.
+ * <p>
+ * Cada livro recebe um número sequencial no índice, e as ocorrências de um termo ficam
+ * em arrays primitivos ordenados por esse número, de modo que a interseção é uma
+ * intercalação. Um livro alterado recebe um número novo e as ocorrências da versão
+ * anterior são descartadas aos poucos: cada lista é compactada quando metade dela está
+ * descartada, e os números são refeitos quando metade deles está descartada.
+ * <p>
+ * O índice é carregado a partir do catálogo quando a aplicação termina de subir
+ * e é atualizado a cada {@link BookChangedEvent}, após o commit da transação.
+ */
+@Component
+public class BookSearchIndex {
+
+    // Parâmetros clássicos do BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso de cada campo na frequência do termo
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int GENRE_WEIGHT = 1;
+    private static final int SYNOPSIS_WEIGHT = 1;
+
+    private final CatalogSource source;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Index index = new Index();
+    // Alterações recebidas durante uma recarga, reaplicadas sobre o novo índice
+    private List<BookChangedEvent> pending;
+
+    private volatile boolean ready;
+
+    public BookSearchIndex(CatalogSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Indica se o índice já foi carregado e pode atender buscas.
+     *
+     * @return {@code true} se o índice estiver pronto
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reconstrói o índice a partir de todos os livros do catálogo ({@link CatalogSource}).
+     * O novo índice é montado sem a trava, enquanto o anterior continua atendendo as buscas;
+     * as alterações recebidas nesse intervalo são reaplicadas antes da troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index loaded = new Index();
+            try {
+                source.forEach(loaded::add);
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                index = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Mantém o índice sincronizado com as alterações feitas pelo serviço.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (ready) {
+                index.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega o índice quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Indexa (ou reindexa) um livro.
+     *
+     * @param book livro a ser indexado
+     */
+    public void index(Book book) {
+        onBookChanged(BookChangedEvent.updated(book));
+    }
+
+    /**
+     * Remove um livro do índice.
+     *
+     * @param id identificador do livro
+     */
+    public void remove(Long id) {
+        onBookChanged(BookChangedEvent.deleted(id));
+    }
+
+    /**
+     * Busca livros que contenham todos os termos informados.
+     * Cada termo da consulta também casa com termos indexados que comecem
+     * por ele, de forma que "hob" encontre "Hobbit".
+     *
+     * @param query texto da consulta
+     * @param limit quantidade máxima de livros
+     * @return IDs dos livros mais relevantes, do mais relevante para o menos relevante
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Scores> perToken = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Scores scores = index.score(token);
+                if (scores.size == 0) {
+                    return List.of();
+                }
+                perToken.add(scores);
+            }
+
+            // Interseção começando pela menor lista de ocorrências
+            perToken.sort(Comparator.comparingInt(scores -> scores.size));
+            Scores result = perToken.getFirst();
+            for (int i = 1; i < perToken.size() && result.size > 0; i++) {
+                result = result.intersect(perToken.get(i));
+            }
+            return index.rank(result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pontuações de uma consulta, em ordem crescente do número do livro no índice.
+     */
+    private static final class Scores {
+
+        private final int[] docs;
+        private final double[] values;
+        private final int size;
+
+        private Scores(int[] docs, double[] values, int size) {
+            this.docs = docs;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * Livros presentes nas duas listas, somando as pontuações.
+         */
+        private Scores intersect(Scores other) {
+            int capacity = Math.min(size, other.size);
+            int[] resultDocs = new int[capacity];
+            double[] resultValues = new double[capacity];
+            int count = 0;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultValues[count++] = values[i++] + other.values[j++];
+                }
+            }
+            return new Scores(resultDocs, resultValues, count);
+        }
+
+        /**
+         * Livros presentes em qualquer das listas, somando as pontuações dos que estão nas duas.
+         */
+        private Scores union(Scores other) {
+            int[] resultDocs = new int[size + other.size];
+            double[] resultValues = new double[size + other.size];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    resultDocs[count] = docs[i];
+                    resultValues[count++] = values[i++];
+                } else if (i == size || docs[i] > other.docs[j]) {
+                    resultDocs[count] = other.docs[j];
+                    resultValues[count++] = other.values[j++];
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultValues[count++] = values[i++] + other.values[j++];
+                }
+            }
+            return new Scores(resultDocs, resultValues, count);
+        }
+    }
+
+    /**
+     * Ocorrências de um termo: números dos livros, em ordem crescente, e a frequência ponderada em cada um.
+     */
+    private static final class Postings {
+
+        private final String term;
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+        // Ocorrências de livros descartados, ainda presentes nos arrays
+        private int dead;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private int live() {
+            return size - dead;
+        }
+
+        private void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size++] = weight;
+        }
+
+        /**
+         * Mantém apenas as ocorrências de livros ativos, com os números informados por {@code renumber}
+         * (ou os mesmos, se for nulo).
+         */
+        private void compact(Postings[][] terms, int[] renumber) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (terms[docs[i]] != null) {
+                    docs[count] = renumber == null ? docs[i] : renumber[docs[i]];
+                    weights[count++] = weights[i];
+                }
+            }
+            int capacity = Math.max(4, count);
+            docs = Arrays.copyOf(docs, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            size = count;
+            dead = 0;
+        }
+    }
+
+    /**
+     * Conteúdo do índice, substituído por inteiro a cada recarga.
+     */
+    private static final class Index {
+
+        // termo -> ocorrências
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+        // ID do livro -> número do livro no índice
+        private final LongIntHashMap docByBook = new LongIntHashMap(1024);
+        // Número do livro -> ID, tamanho (soma das frequências ponderadas) e listas em que aparece
+        private long[] ids = new long[1024];
+        private int[] lengths = new int[1024];
+        // Nulo para livros descartados
+        private Postings[][] terms = new Postings[1024][];
+        private int next;
+        private int live;
+        private long totalLength;
+
+        private void apply(BookChangedEvent event) {
+            remove(event.bookId());
+            if (event.type() != BookChangedEvent.Type.DELETED) {
+                add(event.book());
+            }
+        }
+
+        private void add(Book book) {
+            Map<String, Integer> weighted = new HashMap<>();
+            addField(weighted, book.getTitle(), TITLE_WEIGHT);
+            addField(weighted, book.getAuthor(), AUTHOR_WEIGHT);
+            addField(weighted, book.getGenre(), GENRE_WEIGHT);
+            addField(weighted, book.getSynopsis(), SYNOPSIS_WEIGHT);
+
+            if (next == ids.length) {
+                int capacity = next * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                terms = Arrays.copyOf(terms, capacity);
+            }
+            int doc = next++;
+
+            Postings[] lists = new Postings[weighted.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weighted.entrySet()) {
+                Postings list = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                list.add(doc, entry.getValue());
+                lists[i++] = list;
+                length += entry.getValue();
+            }
+
+            ids[doc] = book.getId();
+            lengths[doc] = length;
+            terms[doc] = lists;
+            docByBook.put(book.getId(), doc);
+            live++;
+            totalLength += length;
+        }
+
+        private static void addField(Map<String, Integer> weighted, String text, int weight) {
+            for (String token : TextNormalizer.tokenize(text)) {
+                weighted.merge(token, weight, Integer::sum);
+            }
+        }
+
+        private void remove(long id) {
+            int doc = docByBook.remove(id);
+            if (doc == LongIntHashMap.MISSING) {
+                return;
+            }
+
+            Postings[] lists = terms[doc];
+            terms[doc] = null;
+            live--;
+            totalLength -= lengths[doc];
+            for (Postings list : lists) {
+                list.dead++;
+                if (list.live() == 0) {
+                    postings.remove(list.term);
+                } else if (list.dead * 2 > list.size) {
+                    list.compact(terms, null);
+                }
+            }
+
+            if (next - live > Math.max(1024, live)) {
+                renumber();
+            }
+        }
+
+        /**
+         * Numera de novo os livros ativos, na mesma ordem, descartando os números dos livros removidos.
+         */
+        private void renumber() {
+            int[] renumbered = new int[next];
+            int count = 0;
+            for (int doc = 0; doc < next; doc++) {
+                if (terms[doc] != null) {
+                    renumbered[doc] = count++;
+                }
+            }
+            for (Postings list : postings.values()) {
+                list.compact(terms, renumbered);
+            }
+
+            int capacity = Math.max(1024, count * 2);
+            long[] newIds = new long[capacity];
+            int[] newLengths = new int[capacity];
+            Postings[][] newTerms = new Postings[capacity][];
+            docByBook.clear();
+            for (int doc = 0; doc < next; doc++) {
+                if (terms[doc] != null) {
+                    int renumberedDoc = renumbered[doc];
+                    newIds[renumberedDoc] = ids[doc];
+                    newLengths[renumberedDoc] = lengths[doc];
+                    newTerms[renumberedDoc] = terms[doc];
+                    docByBook.put(ids[doc], renumberedDoc);
+                }
+            }
+            ids = newIds;
+            lengths = newLengths;
+            terms = newTerms;
+            next = count;
+        }
+
+        /**
+         * Calcula a pontuação BM25 de cada livro para um termo da consulta,
+         * considerando todos os termos indexados que começam por ele.
+         */
+        private Scores score(String token) {
+            Collection<Postings> matches = postings.subMap(token, true, token + Character.MAX_VALUE, false).values();
+            double avgLength = live == 0 ? 0 : (double) totalLength / live;
+
+            // Intercala as listas duas a duas, da mais antiga para a mais recente
+            ArrayDeque<Scores> queue = new ArrayDeque<>(matches.size());
+            for (Postings list : matches) {
+                queue.add(score(list, avgLength));
+            }
+            if (queue.isEmpty()) {
+                return new Scores(new int[0], new double[0], 0);
+            }
+            while (queue.size() > 1) {
+                queue.add(queue.poll().union(queue.poll()));
+            }
+            return queue.poll();
+        }
+
+        private Scores score(Postings list, double avgLength) {
+            double idf = Math.log(1 + (live - list.live() + 0.5) / (list.live() + 0.5));
+            int[] docs = new int[list.live()];
+            double[] values = new double[list.live()];
+            int count = 0;
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                if (terms[doc] == null) {
+                    continue;
+                }
+                int tf = list.weights[i];
+                double norm = tf + K1 * (1 - B + B * lengths[doc] / avgLength);
+                docs[count] = doc;
+                values[count++] = idf * tf * (K1 + 1) / norm;
+            }
+            return new Scores(docs, values, count);
+        }
+
+        /**
+         * IDs dos {@code limit} livros de maior pontuação, da maior para a menor e, em caso de empate,
+         * em ordem de ID. Seleciona com um heap de tamanho {@code limit}, sem ordenar todos os encontrados.
+         */
+        private List<Long> rank(Scores scores, int limit) {
+            // Heap com a pior posição de scores na raiz
+            int[] heap = new int[Math.min(limit, scores.size)];
+            int size = 0;
+            for (int i = 0; i < scores.size; i++) {
+                if (size < heap.length) {
+                    heap[size] = i;
+                    siftUp(heap, size++, scores);
+                } else if (ranksBefore(scores, i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, size, scores);
+                }
+            }
+
+            long[] ranked = new long[size];
+            while (size > 0) {
+                ranked[size - 1] = ids[scores.docs[heap[0]]];
+                heap[0] = heap[--size];
+                siftDown(heap, size, scores);
+            }
+            List<Long> result = new ArrayList<>(ranked.length);
+            for (long id : ranked) {
+                result.add(id);
+            }
+            return result;
+        }
+
+        private boolean ranksBefore(Scores scores, int a, int b) {
+            int byScore = Double.compare(scores.values[a], scores.values[b]);
+            return byScore != 0 ? byScore > 0 : ids[scores.docs[a]] < ids[scores.docs[b]];
+        }
+
+        private void siftUp(int[] heap, int position, Scores scores) {
+            int item = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (!ranksBefore(scores, heap[parent], item)) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = item;
+        }
+
+        private void siftDown(int[] heap, int size, Scores scores) {
+            if (size == 0) {
+                return;
+            }
+            int item = heap[0];
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && ranksBefore(scores, heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!ranksBefore(scores, item, heap[child])) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = item;
+        }
+    }
+}
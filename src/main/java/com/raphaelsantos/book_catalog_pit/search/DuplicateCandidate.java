@@ -0,0 +1,12 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+/**
+ * Livro já cadastrado que provavelmente é uma duplicata do livro informado.
+ *
+ * @param id         identificador do livro
+ * @param title      título do livro
+ * @param author     autor do livro
+ * @param similarity semelhança entre título e autor, de 0 a 1
+ */
+public record DuplicateCandidate(Long id, String title, String author, double similarity) {
+}
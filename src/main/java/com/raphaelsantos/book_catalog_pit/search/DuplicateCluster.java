@@ -0,0 +1,13 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import java.util.List;
+
+/**
+ * Grupo de livros provavelmente duplicados entre si.
+ *
+ * @param title  título do primeiro livro do grupo
+ * @param author autor do primeiro livro do grupo
+ * @param ids    identificadores dos livros do grupo, em ordem crescente
+ */
+public record DuplicateCluster(String title, String author, List<Long> ids) {
+}
@@ -0,0 +1,218 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos livros por faixas MinHash ({@link MinHash}), usado para
+ * avisar, no cadastro e na edição, que já existe um livro com título e autor
+ * muito parecidos.
+ * <p>
+ * A consulta só compara o livro com os que caem em alguma das mesmas faixas,
+ * de modo que o custo não depende do tamanho do catálogo. Os candidatos são
+ * confirmados pela semelhança exata, que precisa alcançar
+ * {@code catalog.duplicates.threshold}.
+ * <p>
+ * Numa recarga, o novo índice é montado sem a trava e trocado de uma vez, com as
+ * alterações recebidas nesse intervalo reaplicadas.
+ */
+@Component
+public class DuplicateIndex {
+
+    /**
+     * Quantidade máxima de duplicatas retornadas por consulta.
+     */
+    public static final int MAX_CANDIDATES = 5;
+
+    private static final long[] NO_BOOKS = new long[0];
+
+    private final CatalogSource source;
+    private final double threshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Bands bands = new Bands();
+    // Alterações recebidas durante uma recarga, reaplicadas sobre o novo índice
+    private List<BookChangedEvent> pending;
+
+    public DuplicateIndex(CatalogSource source,
+                          @Value("${catalog.duplicates.threshold:0.8}") double threshold) {
+        this.source = source;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Recarrega o índice a partir de todos os livros do catálogo ({@link CatalogSource}).
+     * O índice anterior continua atendendo as consultas até a troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Bands loaded = new Bands();
+            try {
+                source.forEach(book -> loaded.add(book.getId(), book.getTitle(), book.getAuthor()));
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                bands = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Mantém o índice sincronizado com as alterações feitas pelo serviço.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            bands.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega o índice quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Retorna os livros já cadastrados com título e autor parecidos com os informados.
+     *
+     * @param id     identificador do livro sendo editado, ignorado na busca ({@code null} no cadastro)
+     * @param title  título do livro
+     * @param author autor do livro
+     * @return até {@link #MAX_CANDIDATES} livros, do mais parecido para o menos parecido
+     */
+    public List<DuplicateCandidate> findDuplicates(Long id, String title, String author) {
+        long[] shingles = MinHash.shingles(title, author);
+        long[] keys = MinHash.bandKeys(shingles);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            List<DuplicateCandidate> result = new ArrayList<>();
+            for (long key : keys) {
+                for (long other : bands.buckets.getOrDefault(key, NO_BOOKS)) {
+                    if ((id != null && other == id) || !seen.add(other)) {
+                        continue;
+                    }
+
+                    Entry entry = bands.entries.get(other);
+                    double similarity = MinHash.similarity(shingles, MinHash.shingles(entry.title(), entry.author()));
+                    if (similarity >= threshold) {
+                        result.add(new DuplicateCandidate(other, entry.title(), entry.author(), similarity));
+                    }
+                }
+            }
+
+            result.sort(Comparator.comparingDouble(DuplicateCandidate::similarity).reversed()
+                    .thenComparing(DuplicateCandidate::id));
+            return result.size() > MAX_CANDIDATES ? List.copyOf(result.subList(0, MAX_CANDIDATES)) : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Livros e faixas, substituídos por inteiro a cada recarga.
+     */
+    private static final class Bands {
+
+        // ID do livro -> título, autor e chaves das faixas
+        private final Map<Long, Entry> entries = new HashMap<>();
+        // Chave da faixa -> IDs dos livros (quase sempre apenas um)
+        private final Map<Long, long[]> buckets = new HashMap<>();
+
+        private void apply(BookChangedEvent event) {
+            remove(event.bookId());
+            if (event.type() != BookChangedEvent.Type.DELETED) {
+                Book book = event.book();
+                add(book.getId(), book.getTitle(), book.getAuthor());
+            }
+        }
+
+        private void add(Long id, String title, String author) {
+            long[] keys = MinHash.bandKeys(MinHash.shingles(title, author));
+            entries.put(id, new Entry(title, author, keys));
+            for (long key : keys) {
+                buckets.merge(key, new long[]{id}, (ids, added) -> {
+                    long[] grown = Arrays.copyOf(ids, ids.length + 1);
+                    grown[ids.length] = added[0];
+                    return grown;
+                });
+            }
+        }
+
+        private void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (long key : entry.keys()) {
+                // Retorna null (removendo a faixa) quando o livro era o único
+                buckets.computeIfPresent(key, (k, ids) -> {
+                    long[] kept = Arrays.stream(ids).filter(other -> other != id).toArray();
+                    return kept.length == 0 ? null : kept;
+                });
+            }
+        }
+    }
+
+    private record Entry(String title, String author, long[] keys) {
+    }
+}
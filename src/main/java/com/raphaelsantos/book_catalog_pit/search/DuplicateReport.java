@@ -0,0 +1,15 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import java.util.List;
+
+/**
+ * Resultado da varredura de duplicatas do catálogo.
+ *
+ * @param books      quantidade de livros verificados
+ * @param clusters   quantidade de grupos de duplicatas encontrados
+ * @param duplicates quantidade de livros excedentes (em cada grupo, todos menos um)
+ * @param millis     duração da varredura, em milissegundos
+ * @param largest    maiores grupos encontrados, do maior para o menor
+ */
+public record DuplicateReport(long books, long clusters, long duplicates, long millis, List<DuplicateCluster> largest) {
+}
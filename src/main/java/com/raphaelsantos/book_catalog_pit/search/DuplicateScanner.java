@@ -0,0 +1,280 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Varredura do catálogo inteiro em busca de grupos de livros duplicados.
+ * <p>
+ * Em vez de comparar todos os pares de livros, calcula em paralelo (fork/join)
+ * as chaves MinHash de cada livro e, para cada faixa, ordena os livros pela
+ * chave: só os livros com a mesma chave em alguma faixa são comparados.
+ * Os pares confirmados são unidos em grupos (union-find), de modo que
+ * "A ≈ B" e "B ≈ C" resultam em um único grupo com os três livros.
+ */
+@Component
+public class DuplicateScanner {
+
+    // Quantidade de livros por tarefa no cálculo das chaves
+    private static final int SIGNATURE_CHUNK = 2048;
+
+    // Grupos de livros com a mesma chave acima desse tamanho não são comparados par a par
+    private static final int PAIRWISE_LIMIT = 16;
+
+    // Nos grupos grandes, quantos vizinhos anteriores cada livro é comparado
+    private static final int WINDOW = 4;
+
+    private final BookRepository repository;
+    private final double threshold;
+
+    public DuplicateScanner(BookRepository repository,
+                            @Value("${catalog.duplicates.threshold:0.8}") double threshold) {
+        this.repository = repository;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Varre todos os livros do banco e agrupa os prováveis duplicados.
+     *
+     * @param limit quantidade máxima de grupos detalhados no relatório
+     * @return relatório com os totais e os maiores grupos
+     */
+    public DuplicateReport scan(int limit) {
+        long started = System.nanoTime();
+        List<BookSummary> books = repository.findSummariesBy();
+        List<DuplicateCluster> clusters = findClusters(books, threshold);
+
+        long duplicates = clusters.stream().mapToLong(cluster -> cluster.ids().size() - 1).sum();
+        return new DuplicateReport(books.size(), clusters.size(), duplicates,
+                (System.nanoTime() - started) / 1_000_000,
+                clusters.subList(0, Math.min(limit, clusters.size())));
+    }
+
+    /**
+     * Agrupa os livros cujo título e autor tenham semelhança mínima {@code threshold}.
+     *
+     * @param books     livros a verificar
+     * @param threshold semelhança mínima, de 0 a 1
+     * @return grupos com ao menos dois livros, do maior para o menor
+     */
+    static List<DuplicateCluster> findClusters(List<BookSummary> books, double threshold) {
+        int n = books.size();
+        long[] keys = new long[n * MinHash.BANDS];
+        new SignatureTask(books, keys, 0, n).invoke();
+
+        List<BandTask> bands = new ArrayList<>(MinHash.BANDS);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            bands.add(new BandTask(books, keys, band, threshold));
+        }
+        ForkJoinTask.invokeAll(bands);
+
+        int[] parent = new int[n];
+        Arrays.setAll(parent, i -> i);
+        for (BandTask band : bands) {
+            long[] pairs = band.join();
+            for (long pair : pairs) {
+                union(parent, (int) (pair >>> 32), (int) pair);
+            }
+        }
+        return group(books, parent);
+    }
+
+    private static List<DuplicateCluster> group(List<BookSummary> books, int[] parent) {
+        int[] sizes = new int[parent.length];
+        for (int i = 0; i < parent.length; i++) {
+            sizes[find(parent, i)]++;
+        }
+
+        Map<Integer, List<Long>> members = new HashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            int root = find(parent, i);
+            if (sizes[root] > 1) {
+                members.computeIfAbsent(root, r -> new ArrayList<>(sizes[r])).add(books.get(i).getId());
+            }
+        }
+
+        List<DuplicateCluster> clusters = new ArrayList<>(members.size());
+        members.forEach((root, ids) -> {
+            BookSummary first = books.get(root);
+            ids.sort(null);
+            clusters.add(new DuplicateCluster(first.getTitle(), first.getAuthor(), ids));
+        });
+        clusters.sort(Comparator.comparingInt((DuplicateCluster cluster) -> cluster.ids().size()).reversed()
+                .thenComparing(cluster -> cluster.ids().getFirst()));
+        return clusters;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // O menor índice vira a raiz, mantendo o resultado determinístico
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * Calcula as chaves das faixas de um intervalo de livros, dividindo o intervalo ao meio enquanto for grande.
+     */
+    private static class SignatureTask extends RecursiveAction {
+
+        private final List<BookSummary> books;
+        private final long[] keys;
+        private final int from;
+        private final int to;
+
+        SignatureTask(List<BookSummary> books, long[] keys, int from, int to) {
+            this.books = books;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SIGNATURE_CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SignatureTask(books, keys, from, middle), new SignatureTask(books, keys, middle, to));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                BookSummary book = books.get(i);
+                long[] bandKeys = MinHash.bandKeys(MinHash.shingles(book.getTitle(), book.getAuthor()));
+                System.arraycopy(bandKeys, 0, keys, i * MinHash.BANDS, MinHash.BANDS);
+            }
+        }
+    }
+
+    /**
+     * Encontra os pares de livros semelhantes que compartilham a chave de uma faixa.
+     * Retorna os pares como {@code (i << 32) | j}.
+     */
+    private static class BandTask extends RecursiveTask<long[]> {
+
+        private final List<BookSummary> books;
+        private final long[] keys;
+        private final int band;
+        private final double threshold;
+
+        BandTask(List<BookSummary> books, long[] keys, int band, double threshold) {
+            this.books = books;
+            this.keys = keys;
+            this.band = band;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected long[] compute() {
+            int n = books.size();
+            if (n < 2) {
+                return new long[0];
+            }
+
+            // Chave e índice do livro em um único long, para ordenar sem objetos.
+            // Os bits mais altos da chave são descartados: colisões só geram comparações a mais.
+            int indexBits = 64 - Long.numberOfLeadingZeros(n - 1);
+            long indexMask = (1L << indexBits) - 1;
+            long[] sorted = new long[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = keys[i * MinHash.BANDS + band] << indexBits | i;
+            }
+            Arrays.parallelSort(sorted);
+
+            long[] pairs = new long[16];
+            int count = 0;
+            int start = 0;
+            while (start < n) {
+                int end = start + 1;
+                while (end < n && (sorted[end] >>> indexBits) == (sorted[start] >>> indexBits)) {
+                    end++;
+                }
+                if (end - start > 1) {
+                    long[] found = compare(sorted, start, end, indexMask);
+                    if (count + found.length > pairs.length) {
+                        pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, count + found.length));
+                    }
+                    System.arraycopy(found, 0, pairs, count, found.length);
+                    count += found.length;
+                }
+                start = end;
+            }
+            return Arrays.copyOf(pairs, count);
+        }
+
+        /**
+         * Compara os livros de um grupo com a mesma chave. Grupos pequenos são comparados par a par.
+         * Grupos grandes costumam reunir livros que só compartilham trigramas comuns (como o início
+         * de "Autor"); neles, os livros são ordenados pela assinatura completa, o que deixa lado a lado
+         * os de assinatura igual, e cada um é comparado só com os {@value #WINDOW} anteriores.
+         */
+        private long[] compare(long[] sorted, int start, int end, long indexMask) {
+            int size = end - start;
+            int[] index = new int[size];
+            for (int k = 0; k < size; k++) {
+                index[k] = (int) (sorted[start + k] & indexMask);
+            }
+
+            boolean pairwise = size <= PAIRWISE_LIMIT;
+            if (!pairwise) {
+                sortBySignature(index);
+            }
+
+            long[][] shingles = new long[size][];
+            for (int k = 0; k < size; k++) {
+                BookSummary book = books.get(index[k]);
+                shingles[k] = MinHash.shingles(book.getTitle(), book.getAuthor());
+            }
+
+            long[] pairs = new long[pairwise ? size * (size - 1) / 2 : WINDOW * size];
+            int count = 0;
+            for (int j = 1; j < size; j++) {
+                for (int i = pairwise ? 0 : Math.max(0, j - WINDOW); i < j; i++) {
+                    if (MinHash.similarity(shingles[i], shingles[j]) >= threshold) {
+                        pairs[count++] = (long) index[i] << 32 | index[j];
+                    }
+                }
+            }
+            return Arrays.copyOf(pairs, count);
+        }
+
+        private void sortBySignature(int[] index) {
+            int positionBits = 64 - Long.numberOfLeadingZeros(index.length - 1);
+            long[] order = new long[index.length];
+            for (int k = 0; k < index.length; k++) {
+                long signature = 0;
+                for (int band = 0; band < MinHash.BANDS; band++) {
+                    signature = signature * 31 + keys[index[k] * MinHash.BANDS + band];
+                }
+                order[k] = signature << positionBits | k;
+            }
+            Arrays.sort(order);
+
+            int[] copy = index.clone();
+            long positionMask = (1L << positionBits) - 1;
+            for (int k = 0; k < index.length; k++) {
+                index[k] = copy[(int) (order[k] & positionMask)];
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Assinaturas MinHash de título e autor, usadas na detecção de livros duplicados.
+ * <p>
+ * O título e o autor são normalizados ({@link TextNormalizer}) e quebrados em
+ * trigramas de caracteres. A semelhança entre dois livros é o coeficiente de
+ * Jaccard entre os seus conjuntos de trigramas, e a assinatura MinHash permite
+ * estimá-la sem comparar os conjuntos. As assinaturas são divididas em
+ * {@value #BANDS} faixas de {@value #ROWS} valores (LSH): livros com ao menos
+ * uma faixa igual são candidatos a duplicata, e os demais nunca são comparados.
+ * Com esses parâmetros, pares com semelhança 0,8 viram candidatos em mais de 99% dos casos.
+ */
+public final class MinHash {
+
+    /**
+     * Quantidade de faixas da assinatura.
+     */
+    public static final int BANDS = 8;
+
+    /**
+     * Quantidade de valores por faixa.
+     */
+    public static final int ROWS = 3;
+
+    private static final int HASHES = BANDS * ROWS;
+    private static final int SHINGLE = 3;
+
+    // Sementes fixas: as assinaturas precisam ser as mesmas entre execuções
+    private static final long[] SEEDS = new SplittableRandom(0x4D696E48617368L).longs(HASHES).toArray();
+
+    private MinHash() {
+    }
+
+    /**
+     * Retorna os trigramas do título e do autor normalizados, sem repetições.
+     * Pontuação, acentos e maiúsculas são ignorados, de modo que
+     * "J.R.R. Tolkien" e "j r r tolkien" produzem os mesmos trigramas.
+     *
+     * @param title  título do livro
+     * @param author autor do livro
+     * @return trigramas codificados, em ordem crescente
+     */
+    public static long[] shingles(String title, String author) {
+        String text = String.join(" ", TextNormalizer.tokenize(title))
+                + " / " + String.join(" ", TextNormalizer.tokenize(author));
+
+        // O separador garante ao menos um trigrama
+        long[] shingles = new long[text.length() - SHINGLE + 1];
+        int count = 0;
+        for (int i = 0; i + SHINGLE <= text.length(); i++) {
+            shingles[count++] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+
+        Arrays.sort(shingles, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || shingles[distinct - 1] != shingles[i]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    /**
+     * Calcula as chaves LSH de cada faixa da assinatura MinHash dos trigramas.
+     * A posição da faixa faz parte da chave, de modo que faixas diferentes
+     * nunca se confundam.
+     *
+     * @param shingles trigramas retornados por {@link #shingles(String, String)}
+     * @return uma chave por faixa
+     */
+    public static long[] bandKeys(long[] shingles) {
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < HASHES; i++) {
+                long hash = mix(shingle ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Calcula o coeficiente de Jaccard exato entre dois conjuntos de trigramas.
+     *
+     * @param a trigramas em ordem crescente, sem repetições
+     * @param b trigramas em ordem crescente, sem repetições
+     * @return semelhança entre 0 e 1
+     */
+    public static double similarity(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 1;
+        }
+
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    // Finalizador do SplitMix64: espalha bem valores próximos
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,367 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Busca por trecho de texto ("contém") no título e no autor de todos os livros,
+ * sem índice, com a mesma semântica do {@code LIKE '%termo%'} do banco, mas
+ * ignorando também os acentos. Habilitada por {@code catalog.scan.enabled=true}.
+ * <p>
+ * Os títulos e autores ficam normalizados ({@link TextNormalizer#fold(String)}), em UTF-8,
+ * lado a lado em um único array de bytes. A varredura divide os livros entre os núcleos
+ * (fork/join) e lê o array oito bytes por vez, procurando o primeiro byte do termo nas oito
+ * posições com poucas operações aritméticas; só as posições candidatas são comparadas
+ * com o termo inteiro.
+ * <p>
+ * Livros alterados são acrescentados ao final e a versão anterior é descartada; quando
+ * metade dos bytes é de versões descartadas, o array é reconstruído.
+ */
+@Component
+public class SubstringScanner {
+
+    // Quantidade de bytes por tarefa na varredura
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    // Separa título, autor e livros: não aparece em termos normalizados
+    private static final byte SEPARATOR = 0;
+
+    private static final long REMOVED = Long.MIN_VALUE;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final CatalogSource source;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Texts texts = new Texts();
+    // Alterações recebidas durante uma recarga, reaplicadas sobre os novos textos
+    private List<BookChangedEvent> pending;
+
+    private volatile boolean ready;
+
+    public SubstringScanner(CatalogSource source,
+                            @Value("${catalog.scan.enabled:false}") boolean enabled) {
+        this.source = source;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indica se os textos foram carregados e a busca pode ser atendida.
+     *
+     * @return {@code true} se habilitada e carregada
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Carrega o título e o autor de todos os livros do catálogo ({@link CatalogSource}).
+     * Os novos textos são montados sem a trava, enquanto os anteriores continuam atendendo;
+     * as alterações recebidas nesse intervalo são reaplicadas antes da troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Texts loaded = new Texts();
+            try {
+                source.forEach(book -> loaded.add(book.getId(), book.getTitle(), book.getAuthor()));
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                texts = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Mantém os textos sincronizados com as alterações feitas no catálogo.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (ready) {
+                texts.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega os textos quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * @return bytes percorridos por uma varredura completa
+     */
+    public int bytes() {
+        lock.readLock().lock();
+        try {
+            return texts.used;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os livros cujo título ou autor contenha o termo, ignorando maiúsculas, minúsculas e acentos.
+     *
+     * @param term  trecho procurado
+     * @param limit quantidade máxima de livros
+     * @return IDs dos livros encontrados, em ordem crescente, limitados aos {@code limit} primeiros
+     */
+    public List<Long> search(String term, int limit) {
+        byte[] pattern = TextNormalizer.fold(term).getBytes(StandardCharsets.UTF_8);
+        if (pattern.length == 0) {
+            return List.of();
+        }
+        for (byte b : pattern) {
+            if (b == SEPARATOR) {
+                return List.of();
+            }
+        }
+
+        long[] found;
+        lock.readLock().lock();
+        try {
+            found = new ScanTask(texts, pattern, 0, texts.slots).invoke();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Os livros alterados ficam fora de ordem no array
+        Arrays.sort(found);
+        return Arrays.stream(found, 0, Math.min(limit, found.length)).boxed().toList();
+    }
+
+    /**
+     * Textos normalizados de todos os livros. Os textos em uso só são alterados sob a trava
+     * de escrita; novos textos são montados sem trava, por uma única thread.
+     */
+    private static final class Texts {
+
+        // Título e autor normalizados de cada livro, terminados por SEPARATOR
+        private byte[] text = new byte[0];
+        private int used;
+        private int live;
+        // Início do texto de cada livro, com uma posição a mais marcando o fim do último
+        private int[] starts = new int[1];
+        private long[] ids = new long[0];
+        private int slots;
+        private final Map<Long, Integer> slotById = new HashMap<>();
+
+        private void apply(BookChangedEvent event) {
+            remove(event.bookId());
+            if (event.type() != BookChangedEvent.Type.DELETED) {
+                Book book = event.book();
+                add(book.getId(), book.getTitle(), book.getAuthor());
+            }
+            if (live * 2 < used) {
+                compact();
+            }
+        }
+
+        private void add(Long id, String title, String author) {
+            byte[] folded = (TextNormalizer.fold(title) + (char) SEPARATOR + TextNormalizer.fold(author) + (char) SEPARATOR)
+                    .getBytes(StandardCharsets.UTF_8);
+            if (used + folded.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(used + folded.length, text.length * 2));
+            }
+            if (slots == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, slots * 2));
+                starts = Arrays.copyOf(starts, ids.length + 1);
+            }
+            System.arraycopy(folded, 0, text, used, folded.length);
+            ids[slots] = id;
+            starts[slots] = used;
+            used += folded.length;
+            live += folded.length;
+            starts[slots + 1] = used;
+            slotById.put(id, slots++);
+        }
+
+        private void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                ids[slot] = REMOVED;
+                live -= starts[slot + 1] - starts[slot];
+            }
+        }
+
+        private void compact() {
+            byte[] compacted = new byte[Math.max(16, live * 2)];
+            int position = 0;
+            int target = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (ids[slot] == REMOVED) {
+                    continue;
+                }
+                int length = starts[slot + 1] - starts[slot];
+                System.arraycopy(text, starts[slot], compacted, position, length);
+                ids[target] = ids[slot];
+                starts[target] = position;
+                slotById.put(ids[target], target);
+                position += length;
+                target++;
+            }
+            starts[target] = position;
+            text = compacted;
+            used = position;
+            slots = target;
+        }
+    }
+
+    /**
+     * Procura o termo nos livros de um intervalo de posições, dividindo o intervalo ao meio
+     * enquanto ele tiver mais de {@value #CHUNK_BYTES} bytes.
+     */
+    private static final class ScanTask extends RecursiveTask<long[]> {
+
+        private final Texts texts;
+        private final byte[] pattern;
+        private final int from;
+        private final int to;
+
+        ScanTask(Texts texts, byte[] pattern, int from, int to) {
+            this.texts = texts;
+            this.pattern = pattern;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            int[] starts = texts.starts;
+            if (to - from > 1 && starts[to] - starts[from] > CHUNK_BYTES) {
+                int middle = (from + to) >>> 1;
+                ScanTask right = new ScanTask(texts, pattern, middle, to);
+                right.fork();
+                long[] left = new ScanTask(texts, pattern, from, middle).compute();
+                long[] rest = right.join();
+                long[] all = Arrays.copyOf(left, left.length + rest.length);
+                System.arraycopy(rest, 0, all, left.length, rest.length);
+                return all;
+            }
+            return scan();
+        }
+
+        private long[] scan() {
+            byte[] text = texts.text;
+            int[] starts = texts.starts;
+            long[] ids = texts.ids;
+            long first = (pattern[0] & 0xFFL) * ONES;
+            int end = starts[to];
+            // Última posição em que o termo ainda cabe
+            int last = end - pattern.length;
+
+            long[] found = new long[16];
+            int count = 0;
+            int slot = from;
+            int position = starts[from];
+            while (position <= last) {
+                int candidate;
+                if (position + Long.BYTES <= end) {
+                    // Bytes iguais ao primeiro do termo viram zero; o bit alto marca cada zero
+                    long word = (long) LONGS.get(text, position) ^ first;
+                    long zeros = (word - ONES) & ~word & HIGHS;
+                    if (zeros == 0) {
+                        position += Long.BYTES;
+                        continue;
+                    }
+                    candidate = position + (Long.numberOfTrailingZeros(zeros) >>> 3);
+                } else if (text[position] == pattern[0]) {
+                    candidate = position;
+                } else {
+                    position++;
+                    continue;
+                }
+
+                if (candidate > last || !Arrays.equals(text, candidate, candidate + pattern.length,
+                        pattern, 0, pattern.length)) {
+                    position = candidate + 1;
+                    continue;
+                }
+
+                // Livro que contém a posição encontrada; o restante dele não precisa ser lido
+                while (starts[slot + 1] <= candidate) {
+                    slot++;
+                }
+                if (ids[slot] != REMOVED) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = ids[slot];
+                }
+                position = starts[slot + 1];
+            }
+            return Arrays.copyOf(found, count);
+        }
+    }
+}
@@ -0,0 +1,828 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import com.raphaelsantos.book_catalog_pit.store.LongIntHashMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de sugestões para o preenchimento automático da busca.
+ * Guarda títulos e autores em uma árvore de prefixos (trie) sem acentos e
+ * em minúsculas, a partir do início de cada palavra, de modo que tanto
+ * "senhor" quanto "aneis" sugiram "O Senhor dos Anéis".
+ * <p>
+ * Tudo fica em arrays primitivos: um nó da árvore é apenas um índice e os textos
+ * ficam em UTF-8, lado a lado em um único array de bytes. Cada caminho a partir de
+ * uma palavra desce no máximo {@value #MAX_DEPTH} caracteres; prefixos mais longos
+ * são conferidos nos textos que terminam no último nó.
+ * <p>
+ * A popularidade de uma sugestão é a quantidade de livros que a compartilham. Cada nó
+ * guarda as {@value #MAX_LIMIT} sugestões mais populares da sua subárvore, atualizadas
+ * a cada alteração apenas nos nós do caminho do texto alterado, de modo que a consulta
+ * de um prefixo não percorre a subárvore. Textos que deixam de ser usados saem da
+ * árvore e seus nós e bytes são reaproveitados.
+ */
+@Component
+public class SuggestionIndex {
+
+    /**
+     * Quantidade máxima de sugestões por consulta.
+     */
+    public static final int MAX_LIMIT = 20;
+
+    // Profundidade máxima de um caminho a partir do início de uma palavra
+    private static final int MAX_DEPTH = 16;
+    private static final int NONE = -1;
+
+    private final CatalogSource source;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Trie trie = new Trie();
+    // Alterações recebidas durante uma recarga, reaplicadas sobre a nova árvore
+    private List<BookChangedEvent> pending;
+
+    public SuggestionIndex(CatalogSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Recarrega as sugestões a partir de todos os livros do catálogo ({@link CatalogSource}).
+     * A nova árvore é montada sem a trava, enquanto a anterior continua atendendo as consultas;
+     * as alterações recebidas nesse intervalo são reaplicadas antes da troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Trie loaded = new Trie();
+            try {
+                source.forEach(book -> loaded.add(book.getId(), book.getTitle(), book.getAuthor()));
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                trie = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Mantém as sugestões sincronizadas com as alterações feitas pelo serviço.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            trie.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega as sugestões quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Retorna os títulos e autores mais populares que contenham uma palavra
+     * iniciada pelo prefixo informado, ignorando maiúsculas e acentos.
+     *
+     * @param prefix prefixo digitado
+     * @param limit  quantidade máxima de sugestões (até {@link #MAX_LIMIT})
+     * @return sugestões, da mais popular para a menos popular
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = TextNormalizer.fold(prefix).strip();
+        int k = Math.min(limit, MAX_LIMIT);
+        if (key.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.suggest(key, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Árvore e sugestões, substituídas por inteiro a cada recarga.
+     */
+    private static final class Trie {
+
+        // Nós da trie: caractere, primeiro filho, próximo irmão e primeira sugestão terminal
+        private char[] labels;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] terminalHead;
+        private int nodeCount;
+        // Nós liberados, encadeados por nextSibling
+        private int freeNode;
+
+        // Sugestões mais populares de cada nó: trecho de topPool em topOffset, com topSize de topCapacity posições
+        private int[] topPool;
+        private int poolUsed;
+        private int poolLive;
+        private int[] topOffset;
+        private byte[] topSize;
+        private byte[] topCapacity;
+
+        // Listas duplamente encadeadas de sugestões que terminam em cada nó; as posições liberadas são encadeadas por linkNext
+        private int[] linkEntry;
+        private int[] linkNode;
+        private int[] linkNext;
+        private int[] linkPrevious;
+        // Próxima ligação da mesma sugestão, a partir de entryLinks
+        private int[] linkSibling;
+        private int linkCount;
+        private int freeLink;
+
+        // Sugestões: texto exibido (UTF-8) e quantidade de livros que a compartilham
+        private byte[] textBytes;
+        private int textUsed;
+        private int textLive;
+        private int[] textOffset;
+        private int[] textLength;
+        private int[] textHash;
+        private int[] counts;
+        private int[] entryLinks;
+        private int entryCount;
+        // Sugestões liberadas, encadeadas por bucketNext
+        private int freeEntry;
+
+        // Tabela de espalhamento dos textos, com encadeamento
+        private int[] buckets;
+        private int[] bucketNext;
+        private int entries;
+
+        // ID do livro -> sugestões de título e autor
+        private LongIntHashMap titleByBook;
+        private LongIntHashMap authorByBook;
+
+        // Caminho percorrido na última inserção ou remoção de um texto
+        private final int[] path = new int[MAX_DEPTH + 1];
+
+        private void apply(BookChangedEvent event) {
+            remove(event.bookId());
+            if (event.type() != BookChangedEvent.Type.DELETED) {
+                Book book = event.book();
+                add(book.getId(), book.getTitle(), book.getAuthor());
+            }
+        }
+
+        private List<String> suggest(String key, int k) {
+            int node = find(key);
+            if (node == NONE) {
+                return List.of();
+            }
+
+            List<String> result = new ArrayList<>(k);
+            if (key.length() <= MAX_DEPTH) {
+                for (int i = 0; i < topSize[node] && result.size() < k; i++) {
+                    result.add(text(topPool[topOffset[node] + i]));
+                }
+                return result;
+            }
+
+            // Prefixo mais longo que a árvore: confere os textos que passam pelo último nó
+            int[] top = new int[k];
+            int size = 0;
+            for (int link = terminalHead[node]; link != NONE; link = linkNext[link]) {
+                int entry = linkEntry[link];
+                if (startsWordWith(text(entry), key)) {
+                    size = insertRanked(top, size, k, entry);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                result.add(text(top[i]));
+            }
+            return result;
+        }
+
+        private static boolean startsWordWith(String text, String key) {
+            String folded = TextNormalizer.fold(text);
+            for (int i = folded.indexOf(key); i >= 0; i = folded.indexOf(key, i + 1)) {
+                if (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Ordena as sugestões da mais popular para a menos popular e, em caso de empate, alfabeticamente.
+         */
+        private int compare(int a, int b) {
+            int byCount = Integer.compare(counts[b], counts[a]);
+            if (byCount != 0) {
+                return byCount;
+            }
+            return Arrays.compareUnsigned(textBytes, textOffset[a], textOffset[a] + textLength[a],
+                    textBytes, textOffset[b], textOffset[b] + textLength[b]);
+        }
+
+        /**
+         * Insere a sugestão na lista ordenada, se ela ainda não estiver lá e couber entre as {@code k} primeiras.
+         *
+         * @return novo tamanho da lista
+         */
+        private int insertRanked(int[] top, int size, int k, int entry) {
+            for (int i = 0; i < size; i++) {
+                if (top[i] == entry) {
+                    return size;
+                }
+            }
+            int position = size;
+            while (position > 0 && compare(entry, top[position - 1]) < 0) {
+                position--;
+            }
+            if (position >= k) {
+                return size;
+            }
+            int moved = Math.min(size, k - 1) - position;
+            System.arraycopy(top, position, top, position + 1, moved);
+            top[position] = entry;
+            return Math.min(size + 1, k);
+        }
+
+        private void add(Long bookId, String title, String author) {
+            int titleEntry = addText(title);
+            int authorEntry = addText(author);
+            if (titleEntry != NONE) {
+                titleByBook.put(bookId, titleEntry);
+            }
+            if (authorEntry != NONE) {
+                authorByBook.put(bookId, authorEntry);
+            }
+        }
+
+        private void remove(Long bookId) {
+            int titleEntry = titleByBook.remove(bookId);
+            if (titleEntry != LongIntHashMap.MISSING) {
+                removeText(titleEntry);
+            }
+            int authorEntry = authorByBook.remove(bookId);
+            if (authorEntry != LongIntHashMap.MISSING) {
+                removeText(authorEntry);
+            }
+        }
+
+        /**
+         * Registra mais um livro com o texto informado, inserindo-o na trie na primeira ocorrência.
+         */
+        private int addText(String text) {
+            if (text == null || text.isBlank()) {
+                return NONE;
+            }
+
+            byte[] display = text.strip().getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(display);
+            int entry = findText(display, hash);
+            if (entry == NONE) {
+                entry = newEntry(display, hash);
+                counts[entry] = 1;
+                entryLinks[entry] = NONE;
+                String folded = TextNormalizer.fold(text(entry));
+                for (int start = 0; start < folded.length(); start++) {
+                    if (isWordStart(folded, start)) {
+                        int depth = descend(folded, start, true);
+                        link(path[depth], entry);
+                        promote(depth, entry);
+                    }
+                }
+                return entry;
+            }
+
+            counts[entry]++;
+            String folded = TextNormalizer.fold(text(entry));
+            for (int start = 0; start < folded.length(); start++) {
+                if (isWordStart(folded, start)) {
+                    promote(descend(folded, start, false), entry);
+                }
+            }
+            return entry;
+        }
+
+        /**
+         * Desconta um livro do texto; sem livros, o texto sai da trie e seus nós e bytes são liberados.
+         */
+        private void removeText(int entry) {
+            counts[entry]--;
+            String folded = TextNormalizer.fold(text(entry));
+
+            // Nós de todos os caminhos do texto, agrupados por profundidade
+            int[][] touched = new int[MAX_DEPTH + 1][];
+            int[] touchedSize = new int[MAX_DEPTH + 1];
+            for (int start = 0; start < folded.length(); start++) {
+                if (!isWordStart(folded, start)) {
+                    continue;
+                }
+                int depth = descend(folded, start, false);
+                for (int d = 1; d <= depth; d++) {
+                    if (touched[d] == null) {
+                        touched[d] = new int[4];
+                    } else if (touchedSize[d] == touched[d].length) {
+                        touched[d] = Arrays.copyOf(touched[d], touchedSize[d] * 2);
+                    }
+                    touched[d][touchedSize[d]++] = path[d];
+                }
+            }
+
+            if (counts[entry] == 0) {
+                unlinkAll(entry);
+            }
+
+            // Dos nós mais profundos para a raiz: uma lista refeita usa as dos filhos já atualizadas
+            for (int d = MAX_DEPTH; d >= 1; d--) {
+                for (int i = 0; i < touchedSize[d]; i++) {
+                    demote(touched[d][i], entry);
+                }
+            }
+
+            if (counts[entry] == 0) {
+                for (int start = 0; start < folded.length(); start++) {
+                    if (isWordStart(folded, start)) {
+                        prune(descend(folded, start, false));
+                    }
+                }
+                releaseEntry(entry);
+            }
+        }
+
+        private static boolean isWordStart(String folded, int i) {
+            return Character.isLetterOrDigit(folded.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)));
+        }
+
+        /**
+         * Desce pela trie a partir do início de uma palavra, guardando o caminho em {@link #path}.
+         *
+         * @return profundidade alcançada
+         */
+        private int descend(String folded, int start, boolean create) {
+            int node = 0;
+            path[0] = node;
+            int depth = 0;
+            for (int i = start; i < folded.length() && depth < MAX_DEPTH; i++) {
+                node = child(node, folded.charAt(i), create);
+                if (node == NONE) {
+                    // Caminho já removido por outra palavra do mesmo texto
+                    break;
+                }
+                path[++depth] = node;
+            }
+            return depth;
+        }
+
+        /**
+         * Atualiza as listas do caminho depois que a sugestão ganhou um livro: ela só pode subir.
+         */
+        private void promote(int depth, int entry) {
+            for (int d = depth; d >= 1; d--) {
+                int node = path[d];
+                int size = topSize[node];
+                int offset = topOffset[node];
+                int position = indexInTop(node, entry);
+                if (position == NONE) {
+                    if (size == MAX_LIMIT && compare(entry, topPool[offset + size - 1]) > 0) {
+                        continue;
+                    }
+                    if (size == topCapacity[node] && size < MAX_LIMIT) {
+                        grow(node);
+                        offset = topOffset[node];
+                    }
+                    position = size < MAX_LIMIT ? size : size - 1;
+                    if (size < MAX_LIMIT) {
+                        topSize[node]++;
+                    }
+                }
+                // Sobe a sugestão até a sua posição
+                while (position > 0 && compare(entry, topPool[offset + position - 1]) < 0) {
+                    topPool[offset + position] = topPool[offset + position - 1];
+                    position--;
+                }
+                topPool[offset + position] = entry;
+            }
+        }
+
+        /**
+         * Atualiza a lista do nó depois que a sugestão perdeu um livro. Se a lista está cheia e a
+         * sugestão cai para o último lugar, outra de fora pode passar à frente dela, e a lista é
+         * refeita a partir das dos filhos.
+         */
+        private void demote(int node, int entry) {
+            int position = indexInTop(node, entry);
+            if (position == NONE) {
+                return;
+            }
+            int offset = topOffset[node];
+            int size = topSize[node];
+            if (counts[entry] == 0) {
+                if (size == MAX_LIMIT) {
+                    recompute(node);
+                } else {
+                    System.arraycopy(topPool, offset + position + 1, topPool, offset + position, size - position - 1);
+                    topSize[node]--;
+                }
+                return;
+            }
+            // Desce a sugestão até a sua posição
+            while (position < size - 1 && compare(entry, topPool[offset + position + 1]) > 0) {
+                topPool[offset + position] = topPool[offset + position + 1];
+                position++;
+            }
+            topPool[offset + position] = entry;
+            if (size == MAX_LIMIT && position == size - 1) {
+                recompute(node);
+            }
+        }
+
+        /**
+         * Refaz a lista do nó com as sugestões que terminam nele e as listas dos filhos, já atualizadas.
+         */
+        private void recompute(int node) {
+            int[] top = new int[MAX_LIMIT];
+            int size = 0;
+            for (int link = terminalHead[node]; link != NONE; link = linkNext[link]) {
+                if (counts[linkEntry[link]] > 0) {
+                    size = insertRanked(top, size, MAX_LIMIT, linkEntry[link]);
+                }
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                for (int i = 0; i < topSize[child]; i++) {
+                    int entry = topPool[topOffset[child] + i];
+                    if (size == MAX_LIMIT && compare(entry, top[MAX_LIMIT - 1]) > 0) {
+                        // A lista do filho é ordenada: as seguintes também não entram
+                        break;
+                    }
+                    if (counts[entry] > 0) {
+                        size = insertRanked(top, size, MAX_LIMIT, entry);
+                    }
+                }
+            }
+            System.arraycopy(top, 0, topPool, topOffset[node], size);
+            topSize[node] = (byte) size;
+        }
+
+        private int indexInTop(int node, int entry) {
+            int offset = topOffset[node];
+            for (int i = 0; i < topSize[node]; i++) {
+                if (topPool[offset + i] == entry) {
+                    return i;
+                }
+            }
+            return NONE;
+        }
+
+        /**
+         * Dobra o espaço da lista do nó, movendo-a para o final de {@link #topPool}.
+         */
+        private void grow(int node) {
+            int capacity = Math.min(MAX_LIMIT, Math.max(2, topCapacity[node] * 2));
+            if (poolUsed + capacity > topPool.length) {
+                compactPool(capacity);
+            }
+            System.arraycopy(topPool, topOffset[node], topPool, poolUsed, topSize[node]);
+            poolLive += capacity - topCapacity[node];
+            topOffset[node] = poolUsed;
+            topCapacity[node] = (byte) capacity;
+            poolUsed += capacity;
+        }
+
+        private void compactPool(int extra) {
+            int[] compacted = new int[Math.max(1024, (poolLive + extra) * 2)];
+            int used = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                if (topCapacity[node] > 0) {
+                    System.arraycopy(topPool, topOffset[node], compacted, used, topSize[node]);
+                    topOffset[node] = used;
+                    used += topCapacity[node];
+                }
+            }
+            topPool = compacted;
+            poolUsed = used;
+        }
+
+        /**
+         * Remove do final do caminho os nós que ficaram sem filhos e sem sugestões.
+         */
+        private void prune(int depth) {
+            for (int d = depth; d >= 1; d--) {
+                int node = path[d];
+                if (firstChild[node] != NONE || terminalHead[node] != NONE) {
+                    return;
+                }
+                int parent = path[d - 1];
+                if (firstChild[parent] == node) {
+                    firstChild[parent] = nextSibling[node];
+                } else {
+                    int previous = firstChild[parent];
+                    while (nextSibling[previous] != node) {
+                        previous = nextSibling[previous];
+                    }
+                    nextSibling[previous] = nextSibling[node];
+                }
+                poolLive -= topCapacity[node];
+                topCapacity[node] = 0;
+                topSize[node] = 0;
+                nextSibling[node] = freeNode;
+                freeNode = node;
+            }
+        }
+
+        private int find(String key) {
+            int node = 0;
+            for (int i = 0; i < key.length() && i < MAX_DEPTH && node != NONE; i++) {
+                node = child(node, key.charAt(i), false);
+            }
+            return node;
+        }
+
+        private int child(int node, char c, boolean create) {
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (labels[child] == c) {
+                    return child;
+                }
+            }
+            if (!create) {
+                return NONE;
+            }
+
+            int created;
+            if (freeNode != NONE) {
+                created = freeNode;
+                freeNode = nextSibling[created];
+            } else {
+                if (nodeCount == labels.length) {
+                    int capacity = nodeCount * 2;
+                    labels = Arrays.copyOf(labels, capacity);
+                    firstChild = Arrays.copyOf(firstChild, capacity);
+                    nextSibling = Arrays.copyOf(nextSibling, capacity);
+                    terminalHead = Arrays.copyOf(terminalHead, capacity);
+                    topOffset = Arrays.copyOf(topOffset, capacity);
+                    topSize = Arrays.copyOf(topSize, capacity);
+                    topCapacity = Arrays.copyOf(topCapacity, capacity);
+                }
+                created = nodeCount++;
+            }
+            labels[created] = c;
+            firstChild[created] = NONE;
+            terminalHead[created] = NONE;
+            topSize[created] = 0;
+            topCapacity[created] = 0;
+            nextSibling[created] = firstChild[node];
+            firstChild[node] = created;
+            return created;
+        }
+
+        private void link(int node, int entry) {
+            // Duas palavras do mesmo texto podem terminar no mesmo nó, ligado por último a ele
+            int head = terminalHead[node];
+            if (head != NONE && linkEntry[head] == entry) {
+                return;
+            }
+            int created;
+            if (freeLink != NONE) {
+                created = freeLink;
+                freeLink = linkNext[created];
+            } else {
+                if (linkCount == linkEntry.length) {
+                    int capacity = linkCount * 2;
+                    linkEntry = Arrays.copyOf(linkEntry, capacity);
+                    linkNode = Arrays.copyOf(linkNode, capacity);
+                    linkNext = Arrays.copyOf(linkNext, capacity);
+                    linkPrevious = Arrays.copyOf(linkPrevious, capacity);
+                    linkSibling = Arrays.copyOf(linkSibling, capacity);
+                }
+                created = linkCount++;
+            }
+            linkEntry[created] = entry;
+            linkNode[created] = node;
+            linkPrevious[created] = NONE;
+            linkNext[created] = head;
+            if (head != NONE) {
+                linkPrevious[head] = created;
+            }
+            terminalHead[node] = created;
+            linkSibling[created] = entryLinks[entry];
+            entryLinks[entry] = created;
+        }
+
+        /**
+         * Retira a sugestão de todos os nós em que ela termina.
+         */
+        private void unlinkAll(int entry) {
+            int link = entryLinks[entry];
+            while (link != NONE) {
+                int previous = linkPrevious[link];
+                int next = linkNext[link];
+                if (previous == NONE) {
+                    terminalHead[linkNode[link]] = next;
+                } else {
+                    linkNext[previous] = next;
+                }
+                if (next != NONE) {
+                    linkPrevious[next] = previous;
+                }
+                int sibling = linkSibling[link];
+                linkNext[link] = freeLink;
+                freeLink = link;
+                link = sibling;
+            }
+            entryLinks[entry] = NONE;
+        }
+
+        private String text(int entry) {
+            return new String(textBytes, textOffset[entry], textLength[entry], StandardCharsets.UTF_8);
+        }
+
+        private int findText(byte[] display, int hash) {
+            for (int entry = buckets[hash & (buckets.length - 1)]; entry != NONE; entry = bucketNext[entry]) {
+                if (textHash[entry] == hash && Arrays.equals(textBytes, textOffset[entry],
+                        textOffset[entry] + textLength[entry], display, 0, display.length)) {
+                    return entry;
+                }
+            }
+            return NONE;
+        }
+
+        private int newEntry(byte[] display, int hash) {
+            int entry;
+            if (freeEntry != NONE) {
+                entry = freeEntry;
+                freeEntry = bucketNext[entry];
+            } else {
+                if (entryCount == counts.length) {
+                    int capacity = entryCount * 2;
+                    counts = Arrays.copyOf(counts, capacity);
+                    entryLinks = Arrays.copyOf(entryLinks, capacity);
+                    textOffset = Arrays.copyOf(textOffset, capacity);
+                    textLength = Arrays.copyOf(textLength, capacity);
+                    textHash = Arrays.copyOf(textHash, capacity);
+                    bucketNext = Arrays.copyOf(bucketNext, capacity);
+                }
+                entry = entryCount++;
+            }
+
+            if (textUsed + display.length > textBytes.length) {
+                compactText(display.length);
+            }
+            System.arraycopy(display, 0, textBytes, textUsed, display.length);
+            textOffset[entry] = textUsed;
+            textLength[entry] = display.length;
+            textHash[entry] = hash;
+            textUsed += display.length;
+            textLive += display.length;
+
+            if ((entries + 1) * 2 > buckets.length) {
+                rehash(buckets.length * 2);
+            }
+            int bucket = hash & (buckets.length - 1);
+            bucketNext[entry] = buckets[bucket];
+            buckets[bucket] = entry;
+            entries++;
+            return entry;
+        }
+
+        private void releaseEntry(int entry) {
+            int bucket = textHash[entry] & (buckets.length - 1);
+            if (buckets[bucket] == entry) {
+                buckets[bucket] = bucketNext[entry];
+            } else {
+                int previous = buckets[bucket];
+                while (bucketNext[previous] != entry) {
+                    previous = bucketNext[previous];
+                }
+                bucketNext[previous] = bucketNext[entry];
+            }
+            entries--;
+            textLive -= textLength[entry];
+            textLength[entry] = 0;
+            bucketNext[entry] = freeEntry;
+            freeEntry = entry;
+        }
+
+        private void rehash(int capacity) {
+            buckets = new int[capacity];
+            Arrays.fill(buckets, NONE);
+            for (int entry = 0; entry < entryCount; entry++) {
+                if (counts[entry] > 0) {
+                    int bucket = textHash[entry] & (capacity - 1);
+                    bucketNext[entry] = buckets[bucket];
+                    buckets[bucket] = entry;
+                }
+            }
+        }
+
+        /**
+         * Copia os textos em uso para um novo array, com o dobro do necessário.
+         */
+        private void compactText(int extra) {
+            byte[] compacted = new byte[Math.max(4096, (textLive + extra) * 2)];
+            int used = 0;
+            for (int entry = 0; entry < entryCount; entry++) {
+                if (counts[entry] > 0) {
+                    System.arraycopy(textBytes, textOffset[entry], compacted, used, textLength[entry]);
+                    textOffset[entry] = used;
+                    used += textLength[entry];
+                }
+            }
+            textBytes = compacted;
+            textUsed = used;
+        }
+
+        private Trie() {
+            labels = new char[1024];
+            firstChild = new int[1024];
+            nextSibling = new int[1024];
+            terminalHead = new int[1024];
+            topOffset = new int[1024];
+            topSize = new byte[1024];
+            topCapacity = new byte[1024];
+            firstChild[0] = NONE;
+            nextSibling[0] = NONE;
+            terminalHead[0] = NONE;
+            nodeCount = 1;
+            freeNode = NONE;
+
+            topPool = new int[1024];
+            poolUsed = 0;
+            poolLive = 0;
+
+            linkEntry = new int[1024];
+            linkNode = new int[1024];
+            linkNext = new int[1024];
+            linkPrevious = new int[1024];
+            linkSibling = new int[1024];
+            linkCount = 0;
+            freeLink = NONE;
+
+            textBytes = new byte[4096];
+            textUsed = 0;
+            textLive = 0;
+            textOffset = new int[256];
+            textLength = new int[256];
+            textHash = new int[256];
+            counts = new int[256];
+            entryLinks = new int[256];
+            entryCount = 0;
+            freeEntry = NONE;
+
+            buckets = new int[512];
+            Arrays.fill(buckets, NONE);
+            bucketNext = new int[256];
+            entries = 0;
+
+            titleByBook = new LongIntHashMap(1024);
+            authorByBook = new LongIntHashMap(1024);
+        }
+    }
+}
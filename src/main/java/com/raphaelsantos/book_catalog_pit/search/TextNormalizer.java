@@ -0,0 +1,63 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Utilitário de normalização de texto para as buscas em memória.
+ * Converte para minúsculas e remove acentos, de modo que "Ficção" e
+ * "ficcao" sejam tratados como o mesmo termo.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Remove acentos e converte o texto para minúsculas.
+     *
+     * @param text texto original (pode ser nulo)
+     * @return texto normalizado, ou string vazia se o texto for nulo
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Divide o texto em termos normalizados, separando por qualquer
+     * caractere que não seja letra ou dígito.
+     *
+     * @param text texto original (pode ser nulo)
+     * @return lista de termos, na ordem em que aparecem
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
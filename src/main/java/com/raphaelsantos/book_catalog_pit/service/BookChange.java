@@ -0,0 +1,20 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import java.time.Instant;
+
+/**
+ * Alteração registrada no outbox do catálogo ({@link BookChangeOutbox}).
+ *
+ * @param offset    posição da alteração no outbox, crescente
+ * @param type      {@code CREATED}, {@code UPDATED}, {@code DELETED} ou {@code RELOADED}
+ * @param bookId    identificador do livro alterado, ou {@code null} quando o catálogo inteiro foi substituído
+ * @param changedAt instante da alteração
+ * @param node      nó do cluster que fez a alteração ({@link com.raphaelsantos.book_catalog_pit.cluster.ClusterNode})
+ */
+public record BookChange(long offset, String type, Long bookId, Instant changedAt, String node) {
+
+    /**
+     * Tipo registrado quando o catálogo inteiro é substituído.
+     */
+    public static final String RELOADED = "RELOADED";
+}
@@ -0,0 +1,158 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.cluster.ClusterNode;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox das alterações do catálogo, lido pelo stream de eventos em {@code /books/changes}.
+ * <p>
+ * Cada alteração publicada pelo serviço vira uma linha da tabela {@code book_change},
+ * gravada na mesma transação da alteração: se a transação for desfeita, a linha
+ * também é. As linhas de uma transação são acumuladas e gravadas em um único lote
+ * logo antes do commit. A posição de cada alteração ({@code offset}) é o ID da
+ * linha, e permite que um cliente retome o stream de onde parou.
+ * Alterações recebidas de outros nós do cluster já foram registradas por eles e são ignoradas.
+ */
+@Component
+public class BookChangeOutbox {
+
+    private static final String INSERT = "insert into book_change (type, book_id, changed_at, node) values (?, ?, ?, ?)";
+
+    private static final RowMapper<BookChange> ROW_MAPPER = (rs, rowNum) -> new BookChange(
+            rs.getLong("id"),
+            rs.getString("type"),
+            rs.getObject("book_id", Long.class),
+            rs.getTimestamp("changed_at").toInstant(),
+            rs.getString("node"));
+
+    private final JdbcTemplate jdbc;
+    private final String node;
+
+    public BookChangeOutbox(JdbcTemplate jdbc, ClusterNode node) {
+        this.jdbc = jdbc;
+        this.node = node.id();
+    }
+
+    /**
+     * Registra a alteração de um livro. Executado dentro da transação de quem publicou o evento.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        record(new Pending(event.type().name(), event.bookId(), Instant.now()));
+    }
+
+    /**
+     * Registra a substituição do catálogo inteiro.
+     *
+     * @param event substituição do catálogo
+     */
+    @EventListener
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        record(new Pending(BookChange.RELOADED, null, Instant.now()));
+    }
+
+    private void record(Pending change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(change));
+            return;
+        }
+
+        // Um lote por transação, gravado antes do commit
+        @SuppressWarnings("unchecked")
+        List<Pending> batch = (List<Pending>) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            List<Pending> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeOutbox.this);
+                }
+            });
+            batch = created;
+        }
+        batch.add(change);
+    }
+
+    private void insert(List<Pending> changes) {
+        jdbc.batchUpdate(INSERT, changes, changes.size(), (ps, change) -> {
+            ps.setString(1, change.type());
+            ps.setObject(2, change.bookId(), Types.BIGINT);
+            ps.setTimestamp(3, Timestamp.from(change.changedAt()));
+            ps.setString(4, node);
+        });
+    }
+
+    /**
+     * Retorna as alterações posteriores à posição informada, em ordem.
+     *
+     * @param offset posição da última alteração já conhecida
+     * @param limit  quantidade máxima de alterações
+     * @return alterações com posição maior que {@code offset}
+     */
+    public List<BookChange> readAfter(long offset, int limit) {
+        return jdbc.query("select id, type, book_id, changed_at, node from book_change where id > ? order by id limit ?",
+                ROW_MAPPER, offset, limit);
+    }
+
+    /**
+     * @return posição da alteração mais antiga ainda guardada, ou {@code null} se não houver nenhuma
+     */
+    public Long firstOffset() {
+        return jdbc.queryForObject("select min(id) from book_change", Long.class);
+    }
+
+    /**
+     * @return posição da alteração mais recente, ou 0 se não houver nenhuma
+     */
+    public long lastOffset() {
+        Long last = jdbc.queryForObject("select max(id) from book_change", Long.class);
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * @return alteração mais recente, ou {@code null} se não houver nenhuma
+     */
+    public BookChange last() {
+        List<BookChange> last = jdbc.query(
+                "select id, type, book_id, changed_at, node from book_change order by id desc limit 1", ROW_MAPPER);
+        return last.isEmpty() ? null : last.getFirst();
+    }
+
+    /**
+     * Remove as alterações anteriores ao instante informado.
+     *
+     * @param before instante limite
+     * @return quantidade de alterações removidas
+     */
+    public int purge(Instant before) {
+        return jdbc.update("delete from book_change where changed_at < ?", Timestamp.from(before));
+    }
+
+    private record Pending(String type, Long bookId, Instant changedAt) {
+    }
+}
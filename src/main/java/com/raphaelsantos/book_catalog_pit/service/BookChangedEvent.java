@@ -0,0 +1,39 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+
+/**
+ * Evento publicado pelo {@link BookService} sempre que um livro é
+ * cadastrado, atualizado ou excluído. Permite que estruturas auxiliares
+ * (como índices em memória) se mantenham sincronizadas com o banco.
+ * <p>
+ * No modo em cluster, alterações feitas por outro nó são publicadas novamente
+ * neste nó com {@code remote = true}, já gravadas e registradas no outbox.
+ *
+ * @param type   tipo da alteração
+ * @param bookId identificador do livro alterado
+ * @param book   estado atual do livro, ou {@code null} em caso de exclusão
+ * @param remote {@code true} se a alteração foi feita por outro nó do cluster
+ */
+public record BookChangedEvent(Type type, Long bookId, Book book, boolean remote) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book, false);
+    }
+
+    public static BookChangedEvent updated(Book book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book, false);
+    }
+
+    public static BookChangedEvent deleted(Long id) {
+        return new BookChangedEvent(Type.DELETED, id, null, false);
+    }
+
+    public static BookChangedEvent remote(Type type, Long id, Book book) {
+        return new BookChangedEvent(type, id, book, true);
+    }
+}
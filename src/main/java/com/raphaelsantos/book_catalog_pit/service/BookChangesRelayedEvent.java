@@ -0,0 +1,13 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import java.util.List;
+
+/**
+ * Evento publicado quando novas alterações do {@link BookChangeOutbox} são lidas
+ * para os clientes do stream de alterações. Inclui as alterações feitas por
+ * outros nós do cluster, que compartilham o mesmo outbox.
+ *
+ * @param changes alterações lidas, em ordem de posição
+ */
+public record BookChangesRelayedEvent(List<BookChange> changes) {
+}
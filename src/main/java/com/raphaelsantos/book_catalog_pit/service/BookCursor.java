@@ -0,0 +1,73 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco utilizado na paginação por chave (keyset) da listagem de livros.
+ * Guarda o ID de referência e a direção da navegação, sendo serializado
+ * como um token Base64 seguro para URLs.
+ *
+ * @param id       ID do livro usado como referência da busca
+ * @param backward {@code true} para buscar livros anteriores ao ID, {@code false} para os posteriores
+ */
+public record BookCursor(long id, boolean backward) {
+
+    private static final char AFTER = 'a';
+    private static final char BEFORE = 'b';
+
+    /**
+     * Cria um cursor que aponta para os livros posteriores ao ID informado.
+     *
+     * @param id ID de referência
+     * @return cursor de avanço
+     */
+    public static BookCursor after(long id) {
+        return new BookCursor(id, false);
+    }
+
+    /**
+     * Cria um cursor que aponta para os livros anteriores ao ID informado.
+     *
+     * @param id ID de referência
+     * @return cursor de retorno
+     */
+    public static BookCursor before(long id) {
+        return new BookCursor(id, true);
+    }
+
+    /**
+     * Converte o cursor em um token textual para ser enviado na URL.
+     *
+     * @return token codificado
+     */
+    public String encode() {
+        String raw = (backward ? BEFORE : AFTER) + Long.toString(id);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reconstrói um cursor a partir do token recebido na requisição.
+     *
+     * @param token token gerado por {@link #encode()}
+     * @return cursor correspondente
+     * @throws InvalidCursorException caso o token não seja válido
+     */
+    public static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            char direction = raw.charAt(0);
+            long id = Long.parseLong(raw.substring(1));
+
+            if (direction != AFTER && direction != BEFORE) {
+                throw new InvalidCursorException(token);
+            }
+            return new BookCursor(id, direction == BEFORE);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço responsável pela exportação completa do catálogo.
+ * Os livros são lidos do banco por um cursor e gravados no destino um a um,
+ * de modo que o consumo de memória não depende do tamanho do catálogo.
+ */
+@Service
+public class BookExportService {
+
+    // Intervalo, em registros, entre os envios parciais ao cliente
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final BookRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public BookExportService(BookRepository repository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta todos os livros em CSV, com cabeçalho compatível com a importação.
+     *
+     * @param writer destino da exportação
+     * @throws IOException em caso de erro de escrita
+     */
+    @Transactional(readOnly = true)
+    public void exportCsv(Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord("id", "title", "author", "publicationYear", "genre", "synopsis");
+
+        export(writer, book -> csv.writeRecord(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getPublicationYear(), book.getGenre(), book.getSynopsis()));
+    }
+
+    /**
+     * Exporta todos os livros em JSON Lines, com um objeto por linha.
+     *
+     * @param writer destino da exportação
+     * @throws IOException em caso de erro de escrita
+     */
+    @Transactional(readOnly = true)
+    public void exportJsonLines(Writer writer) throws IOException {
+        export(writer, book -> {
+            writer.write(objectMapper.writeValueAsString(book));
+            writer.write('\n');
+        });
+    }
+
+    private void export(Writer writer, RowWriter rowWriter) throws IOException {
+        try (Stream<Book> books = repository.streamAllByOrderByIdAsc()) {
+            Iterator<Book> iterator = books.iterator();
+            long count = 0;
+
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                rowWriter.write(book);
+                // Libera o livro do contexto de persistência logo após gravá-lo
+                entityManager.detach(book);
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Book book) throws IOException;
+    }
+}
@@ -0,0 +1,62 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+
+/**
+ * Filtros estruturados da listagem de livros. Campos nulos não filtram.
+ *
+ * @param genre    gênero exato
+ * @param yearFrom ano de publicação mínimo (inclusivo)
+ * @param yearTo   ano de publicação máximo (inclusivo)
+ */
+public record BookFilter(String genre, Integer yearFrom, Integer yearTo) {
+
+    /**
+     * Filtro que aceita todos os livros.
+     */
+    public static final BookFilter NONE = new BookFilter(null, null, null);
+
+    public BookFilter {
+        genre = genre == null || genre.isBlank() ? null : genre.trim();
+    }
+
+    /**
+     * Indica se nenhum filtro foi informado.
+     *
+     * @return {@code true} se todos os campos forem nulos
+     */
+    public boolean isEmpty() {
+        return genre == null && yearFrom == null && yearTo == null;
+    }
+
+    /**
+     * Verifica se o livro atende aos filtros.
+     *
+     * @param book resumo do livro
+     * @return {@code true} se o livro atender a todos os filtros informados
+     */
+    public boolean matches(BookSummary book) {
+        return matchesGenre(book.getGenre()) && matchesYear(book.getPublicationYear());
+    }
+
+    /**
+     * Verifica se o gênero atende ao filtro de gênero.
+     *
+     * @param genre gênero do livro (pode ser nulo)
+     * @return {@code true} se não houver filtro de gênero ou se o gênero for o filtrado
+     */
+    public boolean matchesGenre(String genre) {
+        return this.genre == null || this.genre.equals(genre);
+    }
+
+    /**
+     * Verifica se o ano de publicação atende ao intervalo de anos.
+     *
+     * @param year ano de publicação do livro (pode ser nulo)
+     * @return {@code true} se não houver filtro de ano ou se o ano estiver no intervalo
+     */
+    public boolean matchesYear(Integer year) {
+        return (yearFrom == null || (year != null && year >= yearFrom))
+                && (yearTo == null || (year != null && year <= yearTo));
+    }
+}
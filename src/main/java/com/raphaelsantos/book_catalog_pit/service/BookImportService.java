@@ -0,0 +1,223 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável pela importação em lote de livros a partir de arquivos
+ * CSV ou JSON Lines. Os registros são lidos um a um, validados com as mesmas
+ * regras do cadastro e gravados em lotes, cada lote em sua própria transação.
+ * Registros inválidos são relatados sem interromper a importação.
+ */
+@Service
+public class BookImportService {
+
+    // Quantidade máxima de erros detalhados no relatório
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "publicationyear");
+
+    private final BookRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+
+    public BookImportService(BookRepository repository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher events,
+                             @Value("${catalog.import.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa livros de um arquivo CSV. A primeira linha deve conter o cabeçalho
+     * com as colunas {@code title}, {@code author} e {@code publicationYear};
+     * as colunas {@code genre} e {@code synopsis} são opcionais.
+     *
+     * @param reader conteúdo do arquivo
+     * @return relatório da importação
+     * @throws IOException em caso de erro de leitura
+     */
+    public ImportReport importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        ImportSession session = new ImportSession();
+
+        List<String> header = csv.next();
+        if (header == null) {
+            return session.finish();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            session.reject(csv.recordLine(), "Cabeçalho deve conter as colunas title, author e publicationYear");
+            return session.finish();
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.size() == 1 && fields.getFirst().isBlank()) {
+                continue;
+            }
+
+            Book book = new Book();
+            book.setTitle(column(fields, columns, "title"));
+            book.setAuthor(column(fields, columns, "author"));
+            book.setGenre(column(fields, columns, "genre"));
+            book.setSynopsis(column(fields, columns, "synopsis"));
+
+            String year = column(fields, columns, "publicationyear");
+            try {
+                book.setPublicationYear(year == null ? null : Integer.valueOf(year.trim()));
+            } catch (NumberFormatException e) {
+                session.reject(csv.recordLine(), "Ano de publicação inválido: " + year);
+                continue;
+            }
+
+            session.accept(csv.recordLine(), book);
+        }
+        return session.finish();
+    }
+
+    /**
+     * Importa livros de um arquivo JSON Lines, com um objeto JSON por linha.
+     * Os campos seguem os nomes de {@link Book}; os campos {@code id} e
+     * {@code version}, se presentes, são ignorados.
+     *
+     * @param reader conteúdo do arquivo
+     * @return relatório da importação
+     * @throws IOException em caso de erro de leitura
+     */
+    public ImportReport importJsonLines(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        ImportSession session = new ImportSession();
+
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                Book book = objectMapper.readValue(line, Book.class);
+                book.setId(null);
+                book.setVersion(null);
+                session.accept(lineNumber, book);
+            } catch (JsonProcessingException e) {
+                session.reject(lineNumber, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    private String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Acumula os registros válidos e os grava a cada lote completo.
+     */
+    private class ImportSession {
+
+        private final List<Book> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void accept(long line, Book book) {
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            batch.add(book);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        ImportReport finish() {
+            flush();
+            return new ImportReport(imported, failed, List.copyOf(errors));
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Book> saved = repository.saveAll(batch);
+                    entityManager.flush();
+                    entityManager.clear();
+                    saved.forEach(book -> events.publishEvent(BookChangedEvent.created(book)));
+                });
+                imported += batch.size();
+            } catch (RuntimeException e) {
+                // Falha no banco descarta apenas o lote atual
+                for (Long line : batchLines) {
+                    reject(line, "Erro ao gravar o lote: " + e.getMessage());
+                }
+            }
+
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+
+import java.util.List;
+
+/**
+ * Página de livros obtida pela paginação por chave (keyset).
+ *
+ * @param books      livros da página, ordenados por ID
+ * @param nextCursor token para a próxima página, ou {@code null} se esta for a última
+ * @param prevCursor token para a página anterior, ou {@code null} se esta for a primeira
+ */
+public record BookPage(List<BookSummary> books, String nextCursor, String prevCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+}
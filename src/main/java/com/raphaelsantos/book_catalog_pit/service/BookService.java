@@ -1,63 +1,381 @@
 package com.raphaelsantos.book_catalog_pit.service;
 
+import com.raphaelsantos.book_catalog_pit.cache.BookCache;
 import com.raphaelsantos.book_catalog_pit.exception.BookNotFoundException;
+import com.raphaelsantos.book_catalog_pit.exception.BookVersionConflictException;
+import com.raphaelsantos.book_catalog_pit.exception.SearchTermTooShortException;
 import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
 import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
-import jakarta.transaction.Transactional;
+import com.raphaelsantos.book_catalog_pit.search.BookSearchIndex;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateCandidate;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateIndex;
+import com.raphaelsantos.book_catalog_pit.search.SubstringScanner;
+import com.raphaelsantos.book_catalog_pit.store.BookView;
+import com.raphaelsantos.book_catalog_pit.store.OffHeapBookStore;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Serviço responsável pelas regras de negócio relacionadas à entidade {@link Book}.
  * Centraliza operações de consulta, cadastro, atualização e exclusão de livros.
+ * Listagens e buscas retornam {@link BookSummary} e rodam em transações somente leitura.
+ * Com o catálogo em memória ({@link OffHeapBookStore}) carregado, a listagem completa,
+ * os resultados da busca e a consulta por ID são atendidos por ele, sem ir ao banco nem
+ * abrir transação; quando vão ao banco, usam a transação somente leitura do repositório.
+ * Buscas e consultas por ID idênticas e simultâneas são executadas uma só vez ({@link SingleFlight}).
+ * O tempo de cada método é medido em {@code catalog.service} e a quantidade de
+ * livros devolvida por buscas e listagens em {@code catalog.results}.
  */
 @Service
+@Timed("catalog.service")
 public class BookService {
 
+    /**
+     * Tamanho mínimo do termo de busca. Termos menores casam com quase todo o catálogo.
+     */
+    public static final int MIN_TERM_LENGTH = 2;
+
+    /**
+     * Quantidade máxima de livros devolvida por uma busca.
+     */
+    public static final int MAX_RESULTS = 500;
+
     private final BookRepository repository;
+    private final BookSearchIndex searchIndex;
+    private final SubstringScanner scanner;
+    private final OffHeapBookStore store;
+    private final DuplicateIndex duplicates;
+    private final SingleFlight singleFlight;
+    private final ApplicationEventPublisher events;
+    private final DistributionSummary listAllResults;
+    private final DistributionSummary searchResults;
 
-    public BookService(BookRepository repository) {
+    public BookService(BookRepository repository,
+                       BookSearchIndex searchIndex,
+                       SubstringScanner scanner,
+                       OffHeapBookStore store,
+                       DuplicateIndex duplicates,
+                       SingleFlight singleFlight,
+                       ApplicationEventPublisher events,
+                       MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.scanner = scanner;
+        this.store = store;
+        this.duplicates = duplicates;
+        this.singleFlight = singleFlight;
+        this.events = events;
+        this.listAllResults = results(meterRegistry, "listAll");
+        this.searchResults = results(meterRegistry, "findByTerm");
+    }
+
+    private static DistributionSummary results(MeterRegistry registry, String method) {
+        return DistributionSummary.builder("catalog.results")
+                .description("Livros devolvidos por chamada")
+                .tag("method", method)
+                .register(registry);
     }
 
     /**
      * Lista todos os livros cadastrados.
      *
-     * @return lista contendo todos os livros
+     * @return lista contendo o resumo de todos os livros
+     */
+    public List<BookSummary> listAll() {
+        List<BookSummary> books = store.isReady() ? store.summaries() : repository.findSummariesBy();
+        listAllResults.record(books.size());
+        return books;
+    }
+
+    /**
+     * Lista os livros de forma paginada, usando o ID como chave de navegação.
+     * Diferente da paginação por OFFSET, o custo de cada página é o mesmo
+     * independentemente da posição no catálogo.
+     *
+     * @param cursor token da página desejada (nulo ou vazio para a primeira página)
+     * @param size   quantidade de livros por página
+     * @return página contendo os livros e os cursores de navegação
+     * @throws com.raphaelsantos.book_catalog_pit.exception.InvalidCursorException caso o cursor seja inválido
+     */
+    @Transactional(readOnly = true)
+    public BookPage listPage(String cursor, int size) {
+        return listPage(cursor, size, BookFilter.NONE);
+    }
+
+    /**
+     * Lista os livros de forma paginada, aplicando os filtros de gênero e ano.
+     *
+     * @param cursor token da página desejada (nulo ou vazio para a primeira página)
+     * @param size   quantidade de livros por página
+     * @param filter filtros da listagem
+     * @return página contendo os livros e os cursores de navegação
+     * @throws com.raphaelsantos.book_catalog_pit.exception.InvalidCursorException caso o cursor seja inválido
+     */
+    @Transactional(readOnly = true)
+    public BookPage listPage(String cursor, int size, BookFilter filter) {
+        // Busca um registro a mais para saber se existe página seguinte
+        Limit limit = Limit.of(size + 1);
+        Pageable firstRows = PageRequest.ofSize(size + 1);
+
+        if (cursor == null || cursor.isBlank()) {
+            List<BookSummary> books = filter.isEmpty()
+                    ? repository.findAllByOrderByIdAsc(limit)
+                    : findFilteredAfter(0L, filter, firstRows);
+            return toPage(books, size, false, true);
+        }
+
+        BookCursor position = BookCursor.decode(cursor);
+
+        if (position.backward()) {
+            List<BookSummary> books = new ArrayList<>(filter.isEmpty()
+                    ? repository.findByIdLessThanOrderByIdDesc(position.id(), limit)
+                    : repository.findFilteredBefore(position.id(), filter.genre(), filter.yearFrom(),
+                    filter.yearTo(), firstRows));
+            boolean hasPrevious = books.size() > size;
+            List<BookSummary> page = new ArrayList<>(books.subList(0, Math.min(size, books.size())));
+            Collections.reverse(page);
+            return toPage(page, size, hasPrevious, false);
+        }
+
+        List<BookSummary> books = filter.isEmpty()
+                ? repository.findByIdGreaterThanOrderByIdAsc(position.id(), limit)
+                : findFilteredAfter(position.id(), filter, firstRows);
+        return toPage(books, size, true, true);
+    }
+
+    private List<BookSummary> findFilteredAfter(Long id, BookFilter filter, Pageable firstRows) {
+        return repository.findFilteredAfter(id, filter.genre(), filter.yearFrom(), filter.yearTo(), firstRows);
+    }
+
+    /**
+     * Monta a página a partir dos livros já ordenados por ID.
+     *
+     * @param books       livros obtidos (podendo conter um registro excedente no avanço)
+     * @param size        tamanho da página
+     * @param hasPrevious indica se existe página anterior
+     * @param forward     indica se a consulta foi de avanço, caso em que o excedente define a próxima página
+     * @return página montada
      */
-    public List<Book> listAll() {
-        return repository.findAll();
+    private BookPage toPage(List<BookSummary> books, int size, boolean hasPrevious, boolean forward) {
+        if (books.isEmpty()) {
+            return new BookPage(List.of(), null, null);
+        }
+
+        boolean hasNext = !forward || books.size() > size;
+        List<BookSummary> page = books.size() > size ? books.subList(0, size) : books;
+
+        String next = hasNext ? BookCursor.after(page.getLast().getId()).encode() : null;
+        String prev = hasPrevious ? BookCursor.before(page.getFirst().getId()).encode() : null;
+        return new BookPage(page, next, prev);
     }
 
     /**
-     * Realiza uma busca por termo, procurando o valor informado
-     * no título ou no autor, ignorando maiúsculas e minúsculas.
-     * Caso o termo seja nulo ou em branco, retorna todos os livros.
+     * Realiza uma busca por termo no título, autor, gênero e sinopse,
+     * ignorando maiúsculas, minúsculas e acentos. Os resultados vêm do
+     * índice invertido em memória, ordenados por relevância.
+     * Quando o índice não encontra nenhum livro, o termo é procurado como trecho do título
+     * ou do autor ("contém") na varredura em memória ({@link SubstringScanner}), se habilitada.
+     * Enquanto o índice não estiver carregado, a busca é feita apenas por trecho,
+     * na varredura ou, se ela estiver desabilitada, no banco.
+     * Caso o termo seja nulo ou em branco, retorna os primeiros livros em ordem de ID.
+     * A busca devolve no máximo {@value #MAX_RESULTS} livros, os mais relevantes.
      *
      * @param term termo de busca (pode ser nulo ou vazio)
-     * @return lista de livros filtrados ou lista completa, se o termo for vazio
+     * @return lista de livros encontrados ou os primeiros do catálogo, se o termo for vazio
+     * @throws SearchTermTooShortException caso o termo tenha menos de {@value #MIN_TERM_LENGTH} caracteres
+     */
+    public List<BookSummary> findByTerm(String term) {
+        return findByTerm(term, BookFilter.NONE);
+    }
+
+    /**
+     * Realiza uma busca por termo, mantendo apenas os livros que atendem
+     * aos filtros de gênero e ano informados.
+     *
+     * Os filtros são aplicados aos {@value #MAX_RESULTS} livros mais relevantes.
+     *
+     * @param term   termo de busca (pode ser nulo ou vazio)
+     * @param filter filtros aplicados ao resultado da busca
+     * @return lista imutável de livros filtrados, ordenados por relevância
+     * @throws SearchTermTooShortException caso o termo tenha menos de {@value #MIN_TERM_LENGTH} caracteres
      */
-    public List<Book> findByTerm(String term) {
+    public List<BookSummary> findByTerm(String term, BookFilter filter) {
+        // Sem transação própria: quem aguarda uma busca idêntica não segura uma conexão.
+        // A lista é compartilhada entre as chamadas juntadas, por isso não pode ser alterada
+        List<BookSummary> books = singleFlight.execute("findByTerm", Arrays.asList(term, filter),
+                () -> Collections.unmodifiableList(search(term, filter)));
+        searchResults.record(books.size());
+        return books;
+    }
+
+    private List<BookSummary> search(String term, BookFilter filter) {
         if (term == null || term.isBlank()) {
-            return listAll();
+            // Mesmo limite da busca: um termo em branco não devolve o catálogo inteiro
+            return listPage(null, MAX_RESULTS, filter).books();
         }
 
-        return repository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(term, term);
+        Optional<List<Long>> ids = findIdsByTerm(term);
+        List<BookSummary> books = ids.isPresent()
+                ? findSummaries(ids.get())
+                : new ArrayList<>(repository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(
+                        term, term, Limit.of(MAX_RESULTS)));
+
+        if (!filter.isEmpty()) {
+            books.removeIf(book -> !filter.matches(book));
+        }
+        return books;
+    }
+
+    /**
+     * Realiza a busca por termo apenas nas estruturas em memória, sem carregar os resumos,
+     * para quem envia os livros aos poucos.
+     *
+     * @param term termo de busca
+     * @return IDs dos até {@value #MAX_RESULTS} livros mais relevantes, ou vazio se nem o índice
+     * nem a varredura estiverem carregados (a busca precisa ir ao banco)
+     * @throws SearchTermTooShortException caso o termo tenha menos de {@value #MIN_TERM_LENGTH} caracteres
+     */
+    public Optional<List<Long>> findIdsByTerm(String term) {
+        if (term == null || term.strip().length() < MIN_TERM_LENGTH) {
+            throw new SearchTermTooShortException(MIN_TERM_LENGTH);
+        }
+
+        List<Long> ids;
+        if (searchIndex.isReady()) {
+            ids = searchIndex.search(term, MAX_RESULTS);
+            // O índice só casa inícios de palavras; um trecho do meio da palavra vai para a varredura
+            if (ids.isEmpty() && scanner.isReady()) {
+                ids = scanner.search(term, MAX_RESULTS);
+            }
+        } else if (scanner.isReady()) {
+            ids = scanner.search(term, MAX_RESULTS);
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(ids.size() > MAX_RESULTS ? ids.subList(0, MAX_RESULTS) : ids);
+    }
+
+    /**
+     * Carrega os resumos dos livros informados, do catálogo em memória ou do banco.
+     *
+     * @param ids IDs dos livros, na ordem desejada
+     * @return resumos dos livros que ainda existem, na mesma ordem
+     */
+    public List<BookSummary> findSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (store.isReady()) {
+            return summaries(ids);
+        }
+
+        // Carrega os resumos e restaura a ordem do índice
+        Map<Long, Integer> rank = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<BookSummary> books = new ArrayList<>(repository.findSummariesByIdIn(ids));
+        books.sort(Comparator.comparing(book -> rank.get(book.getId())));
+        return books;
+    }
+
+    /**
+     * Resumos dos livros no catálogo em memória, na ordem dos IDs informados.
+     */
+    private List<BookSummary> summaries(List<Long> ids) {
+        List<BookSummary> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookSummary book = store.read(id, BookView::toSummary);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
     }
 
     /**
      * Busca um livro pelo seu identificador.
+     * O resultado fica em cache até o livro ser alterado ou a entrada expirar.
      *
      * @param id identificador do livro
      * @return livro encontrado
      * @throws BookNotFoundException caso não exista livro com o ID informado
      */
+    @Cacheable(cacheNames = BookCache.BY_ID, key = "#id")
     public Book findById(Long id) {
+        return singleFlight.execute("findById", id, () -> {
+            if (store.isReady()) {
+                Book book = store.findBook(id);
+                if (book == null) {
+                    throw new BookNotFoundException(id);
+                }
+                return book;
+            }
+            return load(id);
+        });
+    }
+
+    private Book load(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException(id));
     }
 
+    /**
+     * Busca vários livros de uma só vez, em uma única consulta.
+     * IDs inexistentes são ignorados.
+     *
+     * @param ids identificadores dos livros
+     * @return livros encontrados, na mesma ordem dos IDs informados
+     */
+    @Transactional(readOnly = true)
+    public List<Book> findByIds(List<Long> ids) {
+        Map<Long, Book> found = new HashMap<>(ids.size() * 2);
+        for (Book book : repository.findAllById(ids)) {
+            found.put(book.getId(), book);
+        }
+
+        List<Book> books = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Book book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Retorna os livros do catálogo com título e autor parecidos com os informados, para avisar
+     * sobre possíveis duplicatas antes de cadastrar ou editar um livro. A verificação não impede
+     * a gravação, e a importação em lote e a restauração de snapshot não a fazem.
+     *
+     * @param id     identificador do livro sendo editado, ignorado na busca ({@code null} no cadastro)
+     * @param title  título do livro
+     * @param author autor do livro
+     * @return até {@link DuplicateIndex#MAX_CANDIDATES} livros, do mais parecido para o menos parecido
+     */
+    public List<DuplicateCandidate> findDuplicates(Long id, String title, String author) {
+        return duplicates.findDuplicates(id, title, author);
+    }
+
     /**
      * Salva um novo livro no banco de dados.
      *
@@ -66,22 +384,31 @@ public class BookService {
      */
     @Transactional
     public Book save(Book book) {
-        return repository.save(book);
+        Book saved = repository.save(book);
+        events.publishEvent(BookChangedEvent.created(saved));
+        return saved;
     }
 
     /**
      * Atualiza os dados de um livro existente a partir do ID informado.
      * Apenas campos relevantes são copiados do objeto de dados para a
-     * instância já persistida.
+     * instância já persistida. Se os dados trouxerem a versão lida pelo
+     * cliente, ela precisa ser a versão atual do livro.
      *
      * @param id   identificador do livro a ser atualizado
      * @param data dados atualizados do livro
      * @return livro atualizado
-     * @throws BookNotFoundException caso não exista livro com o ID informado
+     * @throws BookNotFoundException        caso não exista livro com o ID informado
+     * @throws BookVersionConflictException caso o livro tenha sido alterado desde a leitura do cliente
      */
     @Transactional
     public Book update(Long id, Book data) {
-        Book existentBook = findById(id);
+        // Lê do banco, e não do cache ou do catálogo em memória: a instância vem gerenciada pela transação atual
+        Book existentBook = load(id);
+
+        if (data.getVersion() != null && !data.getVersion().equals(existentBook.getVersion())) {
+            throw new BookVersionConflictException(id);
+        }
 
         // Atualiza os campos do livro existente com os dados recebidos
         existentBook.setTitle(data.getTitle());
@@ -90,7 +417,9 @@ public class BookService {
         existentBook.setSynopsis(data.getSynopsis());
         existentBook.setPublicationYear(data.getPublicationYear());
 
-        return repository.save(existentBook);
+        Book saved = repository.save(existentBook);
+        events.publishEvent(BookChangedEvent.updated(saved));
+        return saved;
     }
 
     /**
@@ -106,5 +435,6 @@ public class BookService {
         }
 
         repository.deleteById(id);
+        events.publishEvent(BookChangedEvent.deleted(id));
     }
 }
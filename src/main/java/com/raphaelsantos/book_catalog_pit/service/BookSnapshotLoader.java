@@ -0,0 +1,52 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Restaura o catálogo a partir do snapshot na subida da aplicação, quando o
+ * banco está vazio (por exemplo, com o H2 em memória). Roda antes do
+ * {@link org.springframework.boot.context.event.ApplicationReadyEvent}, de
+ * modo que os índices em memória já sejam montados com o catálogo restaurado.
+ * Por isso a restauração não publica {@link CatalogReloadedEvent}, que montaria
+ * tudo uma segunda vez.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.snapshot.restore-on-startup", havingValue = "true")
+public class BookSnapshotLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSnapshotLoader.class);
+
+    private final BookSnapshotService snapshots;
+    private final BookRepository repository;
+    private final Path file;
+
+    public BookSnapshotLoader(BookSnapshotService snapshots,
+                              BookRepository repository,
+                              @Value("${catalog.snapshot.file:data/catalog.snapshot}") Path file) {
+        this.snapshots = snapshots;
+        this.repository = repository;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!Files.isRegularFile(file) || repository.count() > 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long books = snapshots.restoreOnStartup();
+        log.info("Catálogo restaurado de {} com {} livros em {} ms",
+                file, books, (System.nanoTime() - started) / 1_000_000);
+    }
+}
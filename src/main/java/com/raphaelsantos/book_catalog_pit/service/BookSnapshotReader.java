@@ -0,0 +1,207 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.InvalidSnapshotException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.END;
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.MAGIC;
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.NULL;
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.NULL_LONG;
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.RECORD;
+import static com.raphaelsantos.book_catalog_pit.service.BookSnapshotWriter.VERSION;
+
+/**
+ * Lê um snapshot gravado por {@link BookSnapshotWriter}. O arquivo é mapeado
+ * em memória e decodificado diretamente das páginas do sistema operacional:
+ * números são lidos do mapeamento e cada texto é copiado para um único array
+ * reaproveitado antes de virar {@link String}, sem buffers de leitura por arquivo
+ * nem um array novo por campo.
+ */
+class BookSnapshotReader {
+
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    // Versão anterior do formato, sem o maior ID e a última alteração no final
+    private static final short VERSION_1 = 1;
+    // Final da versão atual: marcador e três longs
+    private static final int FOOTER_BYTES = Byte.BYTES + 3 * Long.BYTES;
+
+    private final MemorySegment segment;
+    private final List<String> dictionary = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+    private long offset;
+
+    private BookSnapshotReader(MemorySegment segment) {
+        this.segment = segment;
+    }
+
+    /**
+     * Lê todos os livros do arquivo, entregando-os um a um.
+     *
+     * @param file     arquivo de snapshot
+     * @param consumer destino de cada livro lido
+     * @return quantidade de livros lidos
+     * @throws IOException              em caso de erro de leitura
+     * @throws InvalidSnapshotException caso o arquivo não esteja no formato esperado
+     */
+    static long read(Path file, Consumer<Book> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new BookSnapshotReader(segment).readAll(consumer);
+        } catch (IndexOutOfBoundsException e) {
+            throw new InvalidSnapshotException("arquivo truncado");
+        }
+    }
+
+    /**
+     * Lê apenas o final do arquivo, sem percorrer os livros.
+     *
+     * @param file arquivo de snapshot
+     * @return quantidade de livros, maior ID e última alteração, ou {@code null} se o
+     * arquivo for de uma versão que não os registra ou estiver incompleto
+     * @throws IOException em caso de erro de leitura
+     */
+    static Summary summary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            long size = channel.size();
+            if (size < 6 + FOOTER_BYTES) {
+                return null;
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            BookSnapshotReader reader = new BookSnapshotReader(segment);
+            if (reader.readInt() != MAGIC || reader.readShort() != VERSION) {
+                return null;
+            }
+            reader.offset = size - FOOTER_BYTES;
+            if (reader.readByte() != END) {
+                return null;
+            }
+            long count = reader.readLong();
+            long maxId = reader.readLong();
+            long maxUpdatedAt = reader.readLong();
+            return new Summary(count, maxId, maxUpdatedAt == NULL_LONG ? null
+                    : Instant.EPOCH.plus(maxUpdatedAt, ChronoUnit.MICROS));
+        }
+    }
+
+    private long readAll(Consumer<Book> consumer) {
+        if (segment.byteSize() < 6 || readInt() != MAGIC) {
+            throw new InvalidSnapshotException("cabeçalho não reconhecido");
+        }
+        short version = readShort();
+        if (version != VERSION && version != VERSION_1) {
+            throw new InvalidSnapshotException("versão " + version + " não suportada");
+        }
+
+        long count = 0;
+        byte tag;
+        while ((tag = readByte()) == RECORD) {
+            consumer.accept(readBook());
+            count++;
+        }
+
+        if (tag != END || readLong() != count) {
+            throw new InvalidSnapshotException("quantidade de registros não confere");
+        }
+        if (version == VERSION) {
+            // Maior ID e última alteração, usados apenas por summary()
+            readLong();
+            readLong();
+        }
+        return count;
+    }
+
+    private Book readBook() {
+        Book book = new Book();
+        book.setId(readLong());
+
+        long version = readLong();
+        book.setVersion(version == NULL_LONG ? null : version);
+        long updatedAt = readLong();
+        book.setUpdatedAt(updatedAt == NULL_LONG ? null : Instant.EPOCH.plus(updatedAt, ChronoUnit.MICROS));
+        int year = readInt();
+        book.setPublicationYear(year == NULL ? null : year);
+
+        book.setTitle(readText());
+        book.setAuthor(readTerm());
+        book.setGenre(readTerm());
+        book.setSynopsis(readText());
+        return book;
+    }
+
+    private String readText() {
+        int length = readInt();
+        if (length == NULL) {
+            return null;
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, scratch, 0, length);
+        offset += length;
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String readTerm() {
+        int index = readInt();
+        if (index == NULL) {
+            return null;
+        }
+        if (index == dictionary.size()) {
+            dictionary.add(readText());
+        } else if (index > dictionary.size()) {
+            throw new InvalidSnapshotException("termo " + index + " fora do dicionário");
+        }
+        return dictionary.get(index);
+    }
+
+    /**
+     * Final do snapshot: quantidade de livros, maior ID ({@code Long.MIN_VALUE} se vazio)
+     * e última alteração ({@code null} se nenhum livro tiver data).
+     */
+    record Summary(long count, long maxId, Instant maxUpdatedAt) {
+    }
+
+    private byte readByte() {
+        byte value = segment.get(ValueLayout.JAVA_BYTE, offset);
+        offset += Byte.BYTES;
+        return value;
+    }
+
+    private short readShort() {
+        short value = segment.get(SHORT, offset);
+        offset += Short.BYTES;
+        return value;
+    }
+
+    private int readInt() {
+        int value = segment.get(INT, offset);
+        offset += Integer.BYTES;
+        return value;
+    }
+
+    private long readLong() {
+        long value = segment.get(LONG, offset);
+        offset += Long.BYTES;
+        return value;
+    }
+}
@@ -0,0 +1,213 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.InvalidSnapshotException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serviço responsável pelo snapshot binário do catálogo (veja {@link BookSnapshotWriter}).
+ * O snapshot é gravado a partir de um cursor sobre o banco e restaurado por
+ * inserts JDBC em lote, sem passar pelo contexto de persistência, o que o torna
+ * bem mais rápido que a exportação e a importação para catálogos grandes.
+ */
+@Service
+public class BookSnapshotService {
+
+    private static final String INSERT = "insert into book "
+            + "(id, title, author, publication_year, genre, synopsis, version, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int INSERT_BATCH = 1000;
+
+    // allocationSize da sequence de Book
+    private static final int ID_BLOCK = 50;
+
+    private final BookRepository repository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final Path file;
+
+    public BookSnapshotService(BookRepository repository,
+                               EntityManager entityManager,
+                               JdbcTemplate jdbc,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher events,
+                               @Value("${catalog.snapshot.file:data/catalog.snapshot}") Path file) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.file = file;
+    }
+
+    /**
+     * Grava todos os livros no formato de snapshot.
+     *
+     * @param out destino do snapshot (não é fechado)
+     * @return quantidade de livros gravados
+     * @throws IOException em caso de erro de escrita
+     */
+    @Transactional(readOnly = true)
+    public long write(OutputStream out) throws IOException {
+        BookSnapshotWriter writer = new BookSnapshotWriter(out);
+        try (Stream<Book> books = repository.streamAllByOrderByIdAsc()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.write(book);
+                entityManager.detach(book);
+            }
+        }
+        return writer.finish();
+    }
+
+    /**
+     * Grava o snapshot em {@code catalog.snapshot.file}. O arquivo anterior só
+     * é substituído quando o novo estiver completo.
+     *
+     * @return quantidade de livros gravados
+     * @throws IOException em caso de erro de escrita
+     */
+    @Transactional(readOnly = true)
+    public long save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "catalog", ".tmp");
+        try {
+            long count;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                count = write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Lê os livros do snapshot em {@code catalog.snapshot.file}, sem alterar o banco.
+     *
+     * @param consumer destino de cada livro lido
+     * @return quantidade de livros lidos
+     * @throws IOException              em caso de erro de leitura
+     * @throws InvalidSnapshotException caso o arquivo não exista ou seja inválido
+     */
+    public long read(Consumer<Book> consumer) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new InvalidSnapshotException("arquivo " + file + " não encontrado");
+        }
+        return BookSnapshotReader.read(file, consumer);
+    }
+
+    /**
+     * Substitui todo o catálogo pelo conteúdo do snapshot em {@code catalog.snapshot.file},
+     * em uma única transação. Após o commit, as estruturas em memória são recarregadas.
+     *
+     * @return quantidade de livros restaurados
+     * @throws IOException              em caso de erro de leitura
+     * @throws InvalidSnapshotException caso o arquivo não exista ou seja inválido
+     */
+    public long restore() throws IOException {
+        return restore(true);
+    }
+
+    /**
+     * Restaura o catálogo como {@link #restore()}, mas sem publicar {@link CatalogReloadedEvent}.
+     * Usado na subida, antes do {@link org.springframework.boot.context.event.ApplicationReadyEvent},
+     * que já monta as estruturas em memória a partir do catálogo restaurado.
+     *
+     * @return quantidade de livros restaurados
+     * @throws IOException              em caso de erro de leitura
+     * @throws InvalidSnapshotException caso o arquivo não exista ou seja inválido
+     */
+    public long restoreOnStartup() throws IOException {
+        return restore(false);
+    }
+
+    private long restore(boolean publish) throws IOException {
+        try {
+            Long restored = transactionTemplate.execute(status -> {
+                jdbc.update("delete from book");
+
+                List<Book> batch = new ArrayList<>(INSERT_BATCH);
+                AtomicLong maxId = new AtomicLong();
+                long count;
+                try {
+                    count = read(book -> {
+                        batch.add(book);
+                        maxId.accumulateAndGet(book.getId(), Math::max);
+                        if (batch.size() == INSERT_BATCH) {
+                            insert(batch);
+                            batch.clear();
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                insert(batch);
+
+                restartSequence(maxId.get());
+                if (publish) {
+                    events.publishEvent(new CatalogReloadedEvent(count));
+                }
+                return count;
+            });
+            return restored == null ? 0 : restored;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Afasta a sequence dos IDs restaurados e dos blocos que o Hibernate já reservou.
+     * Com o otimizador pooled, cada valor da sequence libera os {@value #ID_BLOCK} IDs anteriores a ele.
+     */
+    private void restartSequence(long maxId) {
+        Long next = jdbc.queryForObject("select next value for book_seq", Long.class);
+        long restart = Math.max(next == null ? 0 : next + ID_BLOCK, maxId + ID_BLOCK + 1);
+        jdbc.execute("alter sequence book_seq restart with " + restart);
+    }
+
+    private void insert(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT, books, books.size(), (ps, book) -> {
+            ps.setLong(1, book.getId());
+            ps.setString(2, book.getTitle());
+            ps.setString(3, book.getAuthor());
+            ps.setObject(4, book.getPublicationYear(), Types.INTEGER);
+            ps.setString(5, book.getGenre());
+            ps.setString(6, book.getSynopsis());
+            ps.setObject(7, book.getVersion(), Types.BIGINT);
+            ps.setTimestamp(8, book.getUpdatedAt() == null ? null : Timestamp.from(book.getUpdatedAt()));
+        });
+    }
+}
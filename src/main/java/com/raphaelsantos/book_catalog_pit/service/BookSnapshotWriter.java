@@ -0,0 +1,113 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grava livros no formato binário de snapshot do catálogo (big-endian):
+ * <pre>
+ * cabeçalho: int MAGIC, short VERSION
+ * registro:  byte 1, long id, long version, long updatedAt (micros), int publicationYear,
+ *            texto title, termo author, termo genre, texto synopsis
+ * final:     byte 0, long quantidade de registros, long maior id, long última alteração (micros)
+ * </pre>
+ * Textos são gravados como {@code int} com o tamanho em bytes seguido do UTF-8
+ * ({@code -1} para nulo). Autores e gêneros, que se repetem muito, passam por
+ * um dicionário: cada termo é gravado apenas na primeira ocorrência e, nas
+ * seguintes, apenas o seu índice.
+ */
+class BookSnapshotWriter {
+
+    static final int MAGIC = 0x424B534E; // "BKSN"
+    static final short VERSION = 2;
+    static final byte RECORD = 1;
+    static final byte END = 0;
+    static final int NULL = -1;
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long count;
+    private long maxId = NULL_LONG;
+    private long maxUpdatedAt = NULL_LONG;
+
+    BookSnapshotWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+    }
+
+    void write(Book book) throws IOException {
+        out.writeByte(RECORD);
+        out.writeLong(book.getId());
+        out.writeLong(book.getVersion() == null ? NULL_LONG : book.getVersion());
+        out.writeLong(book.getUpdatedAt() == null ? NULL_LONG : toMicros(book.getUpdatedAt()));
+        out.writeInt(book.getPublicationYear() == null ? NULL : book.getPublicationYear());
+        writeText(book.getTitle());
+        writeTerm(book.getAuthor());
+        writeTerm(book.getGenre());
+        writeText(book.getSynopsis());
+        count++;
+        maxId = Math.max(maxId, book.getId());
+        if (book.getUpdatedAt() != null) {
+            maxUpdatedAt = Math.max(maxUpdatedAt, toMicros(book.getUpdatedAt()));
+        }
+    }
+
+    /**
+     * Grava o marcador de fim, com a quantidade de livros, o maior ID e a última alteração,
+     * e descarrega o buffer, sem fechar o destino.
+     *
+     * @return quantidade de livros gravados
+     */
+    long finish() throws IOException {
+        out.writeByte(END);
+        out.writeLong(count);
+        out.writeLong(maxId);
+        out.writeLong(maxUpdatedAt);
+        out.flush();
+        return count;
+    }
+
+    private void writeText(String text) throws IOException {
+        if (text == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeTerm(String term) throws IOException {
+        if (term == null) {
+            out.writeInt(NULL);
+            return;
+        }
+
+        Integer index = dictionary.get(term);
+        if (index != null) {
+            out.writeInt(index);
+            return;
+        }
+
+        // Índice igual ao tamanho do dicionário indica um termo novo, gravado em seguida
+        int next = dictionary.size();
+        dictionary.put(term, next);
+        out.writeInt(next);
+        writeText(term);
+    }
+
+    static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
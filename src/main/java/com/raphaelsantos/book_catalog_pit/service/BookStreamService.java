@@ -0,0 +1,112 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.SearchTermTooShortException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Consultas ao catálogo como fluxos reativos, para clientes que recebem os
+ * livros à medida que são lidos (NDJSON).
+ * <p>
+ * Nenhuma thread de requisição espera pelo banco: cada consulta JDBC roda em um
+ * pool limitado ({@link Schedulers#boundedElastic()}), e a listagem completa é lida
+ * em páginas por ID, cada uma só depois que o cliente consumiu a anterior. Assim, um
+ * cliente lento não segura uma conexão do banco nem acumula o catálogo em memória.
+ * A busca obtém do índice apenas os IDs encontrados e carrega os resumos da mesma forma,
+ * uma página por vez.
+ */
+@Service
+public class BookStreamService {
+
+    private final BookRepository repository;
+    private final BookService service;
+    private final Scheduler scheduler;
+    private final int pageSize;
+
+    @Autowired
+    public BookStreamService(BookRepository repository,
+                             BookService service,
+                             @Value("${catalog.stream.page-size:200}") int pageSize) {
+        this(repository, service, Schedulers.boundedElastic(), pageSize);
+    }
+
+    BookStreamService(BookRepository repository, BookService service, Scheduler scheduler, int pageSize) {
+        this.repository = repository;
+        this.service = service;
+        this.scheduler = scheduler;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Lista todos os livros em ordem de ID, lendo a próxima página apenas sob demanda.
+     *
+     * @return fluxo com os resumos de todos os livros
+     */
+    public Flux<BookSummary> listAll() {
+        return page(null)
+                .expand(page -> page.size() < pageSize ? Mono.empty() : page(page.getLast().getId()))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    /**
+     * Realiza a mesma busca de {@link BookService#findByTerm(String)}, carregando os resumos
+     * sob demanda, em páginas de {@code catalog.stream.page-size} livros. Enquanto o índice
+     * não estiver carregado, a busca vai ao banco e o resultado é enviado de uma vez.
+     * Com o termo em branco, envia os primeiros {@value BookService#MAX_RESULTS} livros de {@link #listAll()}.
+     *
+     * @param term termo de busca (pode ser nulo ou vazio)
+     * @return fluxo com os livros encontrados, ordenados por relevância
+     * @throws SearchTermTooShortException caso o termo tenha menos de {@value BookService#MIN_TERM_LENGTH} caracteres
+     */
+    public Flux<BookSummary> findByTerm(String term) {
+        if (term == null || term.isBlank()) {
+            return listAll().take(BookService.MAX_RESULTS);
+        }
+        // Validado antes da assinatura, para que o erro vire uma resposta 400 e não um fluxo interrompido
+        if (term.strip().length() < BookService.MIN_TERM_LENGTH) {
+            throw new SearchTermTooShortException(BookService.MIN_TERM_LENGTH);
+        }
+        return Mono.fromCallable(() -> service.findIdsByTerm(term))
+                .subscribeOn(scheduler)
+                .flatMapMany(ids -> ids.isPresent()
+                        ? Flux.fromIterable(ids.get())
+                        .buffer(pageSize)
+                        .concatMap(this::summaries, 1)
+                        .concatMapIterable(page -> page, 1)
+                        : Mono.fromCallable(() -> service.findByTerm(term))
+                        .subscribeOn(scheduler)
+                        .flatMapIterable(books -> books));
+    }
+
+    /**
+     * Busca um livro pelo seu identificador, passando pelo cache de livros.
+     *
+     * @param id identificador do livro
+     * @return livro encontrado, ou erro {@link com.raphaelsantos.book_catalog_pit.exception.BookNotFoundException}
+     */
+    public Mono<Book> findById(Long id) {
+        return Mono.fromCallable(() -> service.findById(id)).subscribeOn(scheduler);
+    }
+
+    private Mono<List<BookSummary>> summaries(List<Long> ids) {
+        return Mono.fromCallable(() -> service.findSummaries(ids)).subscribeOn(scheduler);
+    }
+
+    private Mono<List<BookSummary>> page(Long afterId) {
+        return Mono.fromCallable(() -> afterId == null
+                        ? repository.findAllByOrderByIdAsc(Limit.of(pageSize))
+                        : repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize)))
+                .subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,418 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.BookVersionConflictException;
+import com.raphaelsantos.book_catalog_pit.exception.WriteQueueFullException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gravação assíncrona (write-behind) de cadastros e atualizações, habilitada
+ * por {@code catalog.write-behind.enabled=true}.
+ * <p>
+ * As gravações são validadas e aceitas na hora, mas ficam em uma fila limitada
+ * em memória e são gravadas em lotes, uma transação por lote, por uma thread
+ * dedicada. Atualizações pendentes do mesmo livro são combinadas e só a última
+ * é gravada, com a versão lida pelo cliente na primeira: a versão é conferida de novo
+ * na gravação, e um conflito é informado como falha do envio. Com a fila cheia, quem envia espera até
+ * {@code catalog.write-behind.offer-timeout} e, depois disso, recebe 503.
+ * <p>
+ * Cada envio recebe um número crescente; {@link #awaitFlushed(long, Duration)}
+ * permite que quem enviou aguarde a gravação antes de ler o catálogo, e
+ * {@link #takeFailures(Collection)} informa quais envios não puderam ser gravados.
+ * No encerramento da aplicação, a fila é esvaziada antes do banco ser fechado.
+ * A fila não sobrevive a uma queda do processo.
+ */
+@Component
+public class BookWriteBehind implements SmartLifecycle {
+
+    /**
+     * Atributo de sessão com o número do último envio feito pela sessão.
+     */
+    public static final String SESSION_TICKET = BookWriteBehind.class.getName() + ".TICKET";
+
+    /**
+     * Atributo de sessão com os números dos envios da sessão cuja gravação ainda não foi conferida.
+     */
+    public static final String SESSION_TICKETS = BookWriteBehind.class.getName() + ".TICKETS";
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBehind.class);
+
+    private final BookService service;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    // Gravações pendentes em ordem de envio; atualizações usam o ID do livro como chave
+    private final LinkedHashMap<Object, Pending> pending = new LinkedHashMap<>();
+    private long lastTicket;
+    private long flushedTicket;
+    // Envios descartados por erro e ainda não informados, limitados aos mais recentes
+    private final Map<Long, String> failures;
+    private volatile boolean running;
+    private Thread worker;
+
+    private final Counter coalesced;
+    private final Counter failed;
+
+    public BookWriteBehind(BookService service,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${catalog.write-behind.enabled:false}") boolean enabled,
+                           @Value("${catalog.write-behind.capacity:10000}") int capacity,
+                           @Value("${catalog.write-behind.batch-size:500}") int batchSize,
+                           @Value("${catalog.write-behind.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${catalog.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.service = service;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.failures = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        Gauge.builder("catalog.write-behind.pending", this, BookWriteBehind::pendingCount)
+                .description("Gravações aguardando na fila")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("catalog.write-behind.coalesced")
+                .description("Atualizações substituídas por outra mais recente do mesmo livro")
+                .register(meterRegistry);
+        this.failed = Counter.builder("catalog.write-behind.failed")
+                .description("Gravações descartadas por erro")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} se as gravações devem passar pela fila
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enfileira o cadastro de um novo livro.
+     *
+     * @param book livro já validado
+     * @return número do envio
+     * @throws WriteQueueFullException caso a fila continue cheia após o tempo de espera
+     */
+    public long submitCreate(Book book) {
+        return submit(new Object(), Pending.Type.CREATE, null, book);
+    }
+
+    /**
+     * Enfileira a atualização de um livro. O livro precisa existir e, se os dados
+     * trouxerem a versão lida pelo cliente, ela precisa ser a versão atual do livro;
+     * ela é conferida aqui e de novo na gravação, contra o banco.
+     * Se já houver uma atualização pendente do mesmo livro, ela é substituída, mantendo a
+     * versão da primeira; se os dados trouxerem uma versão, o envio é recusado, pois foi
+     * feito sobre a versão que a atualização pendente vai alterar.
+     *
+     * @param id   identificador do livro
+     * @param data dados atualizados do livro, já validados
+     * @return número do envio
+     * @throws com.raphaelsantos.book_catalog_pit.exception.BookNotFoundException caso o livro não exista
+     * @throws BookVersionConflictException caso o livro tenha sido alterado desde a leitura do cliente,
+     *                                      ou tenha uma atualização pendente
+     * @throws WriteQueueFullException      caso a fila continue cheia após o tempo de espera
+     */
+    public long submitUpdate(Long id, Book data) {
+        Book current = service.findById(id);
+        if (data.getVersion() != null && !data.getVersion().equals(current.getVersion())) {
+            throw new BookVersionConflictException(id);
+        }
+        return submit(id, Pending.Type.UPDATE, id, data);
+    }
+
+    private long submit(Object key, Pending.Type type, Long id, Book book) {
+        lock.lock();
+        try {
+            boolean replacing = pending.containsKey(key);
+            long deadline = System.nanoTime() + offerTimeout.toNanos();
+            while (!replacing && pending.size() >= capacity) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    throw new WriteQueueFullException(capacity);
+                }
+                notFull.awaitNanos(remaining);
+                replacing = pending.containsKey(key);
+            }
+            if (!running) {
+                throw new WriteQueueFullException(capacity);
+            }
+
+            Pending previous = pending.get(key);
+            if (previous != null && type == Pending.Type.UPDATE) {
+                if (book.getVersion() != null) {
+                    throw new BookVersionConflictException(id);
+                }
+                // A gravação confere a versão lida antes da primeira atualização combinada
+                book.setVersion(previous.book().getVersion());
+            }
+
+            // Reinsere no fim para manter a fila em ordem de envio
+            if (pending.remove(key) != null) {
+                coalesced.increment();
+            }
+            long ticket = ++lastTicket;
+            pending.put(key, new Pending(ticket, type, id, book));
+            hasWork.signal();
+            return ticket;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteQueueFullException(capacity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que o envio informado e todos os anteriores tenham sido gravados.
+     *
+     * @param ticket  número do envio
+     * @param timeout tempo máximo de espera
+     * @return {@code true} se o envio já foi gravado
+     */
+    public boolean awaitFlushed(long ticket, Duration timeout) {
+        lock.lock();
+        try {
+            long remaining = timeout.toNanos();
+            while (flushedTicket < ticket) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = flushed.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retorna e esquece as falhas dos envios informados que já foram processados.
+     *
+     * @param tickets números dos envios
+     * @return mensagens das gravações descartadas por erro, em ordem de envio
+     */
+    public List<String> takeFailures(Collection<Long> tickets) {
+        lock.lock();
+        try {
+            List<String> result = new ArrayList<>();
+            for (Long ticket : tickets) {
+                String message = failures.remove(ticket);
+                if (message != null) {
+                    result.add(message);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica se o envio informado já foi processado, gravado ou descartado.
+     *
+     * @param ticket número do envio
+     * @return {@code true} se o envio já saiu da fila
+     */
+    public boolean isFlushed(long ticket) {
+        lock.lock();
+        try {
+            return flushedTicket >= ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("book-write-behind").daemon().start(this::run);
+    }
+
+    /**
+     * Para de aceitar envios e aguarda a gravação de tudo o que está na fila.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            hasWork.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Para depois do servidor web, de modo que as últimas requisições ainda sejam enfileiradas,
+     * e antes do fechamento do banco.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        while (true) {
+            List<Pending> batch;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) {
+                    hasWork.await();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                // Espera um pouco por mais gravações para formar um lote maior
+                long remaining = flushInterval.toNanos();
+                while (running && pending.size() < batchSize && remaining > 0) {
+                    remaining = hasWork.awaitNanos(remaining);
+                }
+
+                batch = drain();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            Map<Long, String> discarded = flush(batch);
+
+            // As falhas ficam visíveis junto com o avanço, para quem aguarda em awaitFlushed
+            lock.lock();
+            try {
+                failures.putAll(discarded);
+                flushedTicket = batch.getLast().ticket();
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Map.Entry<Object, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next().getValue());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Grava o lote em uma transação; se ela falhar, grava cada item em sua própria
+     * transação, descartando apenas os que falharem novamente.
+     *
+     * @return mensagens das gravações descartadas, por número do envio
+     */
+    private Map<Long, String> flush(List<Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+            return Map.of();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote de {} livros, gravando um a um: {}", batch.size(), e.getMessage());
+        }
+
+        Map<Long, String> discarded = new LinkedHashMap<>();
+        for (Pending item : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(item));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Gravação descartada ({} do livro {}): {}", item.type(), item.id(), e.getMessage());
+                discarded.put(item.ticket(), e instanceof BookVersionConflictException
+                        ? "O livro \"" + item.book().getTitle() + "\" foi alterado por outra pessoa e a edição não foi"
+                                + " salva. Recarregue o livro e edite novamente."
+                        : "Não foi possível salvar o livro \"" + item.book().getTitle()
+                                + "\". Confira a listagem e tente novamente.");
+            }
+        }
+        return discarded;
+    }
+
+    private void apply(Pending item) {
+        if (item.type() == Pending.Type.CREATE) {
+            // Descarta o ID e a versão atribuídos numa tentativa anterior que foi desfeita
+            item.book().setId(null);
+            item.book().setVersion(null);
+            service.save(item.book());
+        } else {
+            // Confere a versão lida pelo cliente contra o banco: o envio pode ter lido do cache
+            service.update(item.id(), item.book());
+        }
+    }
+
+    private record Pending(long ticket, Type type, Long id, Book book) {
+
+        enum Type {CREATE, UPDATE}
+    }
+}
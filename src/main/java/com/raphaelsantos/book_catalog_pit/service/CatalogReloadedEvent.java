@@ -0,0 +1,16 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+/**
+ * Evento publicado quando o catálogo inteiro é substituído de uma só vez,
+ * como na restauração de um snapshot. As estruturas mantidas em memória
+ * devem ser recarregadas a partir do banco.
+ *
+ * @param books  quantidade de livros no catálogo após a substituição
+ * @param remote {@code true} se a substituição foi feita por outro nó do cluster
+ */
+public record CatalogReloadedEvent(long books, boolean remote) {
+
+    public CatalogReloadedEvent(long books) {
+        this(books, false);
+    }
+}
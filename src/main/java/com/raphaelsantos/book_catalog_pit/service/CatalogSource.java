@@ -0,0 +1,114 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Consumer;
+
+/**
+ * Origem dos livros para a montagem das estruturas em memória (índices, facetas,
+ * sugestões e o catálogo em memória), sem passar pelo contexto de persistência.
+ * <p>
+ * Com {@code catalog.warm-start.enabled=true}, os livros vêm do snapshot em
+ * {@code catalog.snapshot.file}, lido por mapeamento de memória, desde que ele
+ * corresponda ao banco: mesma quantidade de livros, mesmo maior ID e mesma última
+ * alteração (as datas do snapshot estão em microssegundos, como a coluna). Caso
+ * contrário, os livros são lidos do banco por JDBC, em ordem de ID.
+ */
+@Component
+public class CatalogSource {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSource.class);
+
+    private static final String SELECT = "select id, title, author, publication_year, genre, synopsis, "
+            + "version, updated_at from book order by id";
+
+    private final JdbcTemplate jdbc;
+    private final Path snapshot;
+    private final boolean warmStart;
+
+    public CatalogSource(JdbcTemplate jdbc,
+                         @Value("${catalog.snapshot.file:data/catalog.snapshot}") Path snapshot,
+                         @Value("${catalog.warm-start.enabled:false}") boolean warmStart) {
+        this.jdbc = jdbc;
+        this.snapshot = snapshot;
+        this.warmStart = warmStart;
+    }
+
+    /**
+     * Entrega todos os livros do catálogo, um a um. Os livros entregues são instâncias
+     * novas, fora do contexto de persistência.
+     *
+     * @param consumer destino de cada livro
+     * @return quantidade de livros entregues
+     */
+    public long forEach(Consumer<Book> consumer) {
+        if (warmStart && isSnapshotCurrent()) {
+            try {
+                return BookSnapshotReader.read(snapshot, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        long[] count = new long[1];
+        jdbc.query(SELECT, (RowCallbackHandler) rs -> {
+            Book book = new Book();
+            book.setId(rs.getLong("id"));
+            book.setTitle(rs.getString("title"));
+            book.setAuthor(rs.getString("author"));
+            book.setPublicationYear(rs.getObject("publication_year", Integer.class));
+            book.setGenre(rs.getString("genre"));
+            book.setSynopsis(rs.getString("synopsis"));
+            book.setVersion(rs.getObject("version", Long.class));
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            book.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+            consumer.accept(book);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Confere se o snapshot tem a mesma quantidade de livros, o mesmo maior ID e a mesma
+     * última alteração que o banco.
+     */
+    boolean isSnapshotCurrent() {
+        if (!Files.isRegularFile(snapshot)) {
+            return false;
+        }
+        try {
+            BookSnapshotReader.Summary file = BookSnapshotReader.summary(snapshot);
+            if (file == null) {
+                return false;
+            }
+            BookSnapshotReader.Summary database = jdbc.queryForObject(
+                    "select count(*), max(id), max(updated_at) from book", (rs, rowNum) -> {
+                        Long maxId = rs.getObject(2, Long.class);
+                        Timestamp maxUpdatedAt = rs.getTimestamp(3);
+                        return new BookSnapshotReader.Summary(rs.getLong(1),
+                                maxId == null ? Long.MIN_VALUE : maxId,
+                                maxUpdatedAt == null ? null : maxUpdatedAt.toInstant().truncatedTo(ChronoUnit.MICROS));
+                    });
+            boolean current = file.equals(database);
+            if (!current) {
+                log.info("Snapshot {} desatualizado em relação ao banco; estruturas em memória montadas pelo banco",
+                        snapshot);
+            }
+            return current;
+        } catch (IOException e) {
+            log.warn("Falha ao ler o snapshot {}: {}", snapshot, e.getMessage());
+            return false;
+        }
+    }
+}
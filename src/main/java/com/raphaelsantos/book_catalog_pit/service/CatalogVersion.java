@@ -0,0 +1,133 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versão do catálogo como um todo, incrementada a cada alteração de livro.
+ * Permite gerar ETags para listagens sem consultar o banco.
+ * O valor inicial é o instante de início da aplicação, de modo que
+ * uma reinicialização também invalide as respostas já em cache nos clientes.
+ * <p>
+ * Com {@code catalog.cluster.enabled=true}, a versão é a posição da última alteração
+ * lida do outbox compartilhado ({@link BookChangeOutbox}) e a data é a dessa alteração,
+ * de modo que os nós que já aplicaram as mesmas alterações devolvam o mesmo ETag.
+ * Entre o commit de uma alteração local e a sua leitura do outbox, a versão é
+ * negativa e própria do nó, para não coincidir com a de um nó em outro estado.
+ */
+@Component
+public class CatalogVersion {
+
+    private final BookChangeOutbox outbox;
+    private final boolean shared;
+    private final AtomicReference<Snapshot> current;
+
+    // No cluster: última alteração lida do outbox e maior posição com alteração local ainda não lida
+    private Snapshot relayed;
+    private long localUntil;
+    private long localVersion;
+
+    public CatalogVersion(BookChangeOutbox outbox,
+                          @Value("${catalog.cluster.enabled:false}") boolean shared) {
+        this.outbox = outbox;
+        this.shared = shared;
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        if (shared) {
+            BookChange last = outbox.last();
+            this.relayed = last == null ? new Snapshot(0, Instant.EPOCH) : snapshot(last);
+            this.localVersion = now.toEpochMilli();
+            this.current = new AtomicReference<>(relayed);
+        } else {
+            this.current = new AtomicReference<>(new Snapshot(now.toEpochMilli(), now));
+        }
+    }
+
+    /**
+     * Retorna a versão atual do catálogo.
+     *
+     * @return versão e instante da última alteração
+     */
+    public Snapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Avança a versão após o commit de cada alteração.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        advance(event.remote());
+    }
+
+    /**
+     * Avança a versão quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        advance(event.remote());
+    }
+
+    /**
+     * No cluster, avança a versão até a última alteração lida do outbox, inclusive as de outros nós.
+     *
+     * @param event alterações lidas do outbox
+     */
+    @EventListener
+    public void onChangesRelayed(BookChangesRelayedEvent event) {
+        if (!shared || event.changes().isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            BookChange last = event.changes().getLast();
+            if (last.offset() > relayed.version()) {
+                relayed = snapshot(last);
+            }
+            if (relayed.version() >= localUntil) {
+                current.set(relayed);
+            }
+        }
+    }
+
+    private void advance(boolean remote) {
+        if (!shared) {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            current.updateAndGet(s -> new Snapshot(s.version() + 1, now));
+            return;
+        }
+        if (remote) {
+            // Alterações de outros nós chegam por onChangesRelayed
+            return;
+        }
+        // A alteração já está no outbox, numa posição até a última atual
+        long last = outbox.lastOffset();
+        synchronized (this) {
+            localUntil = Math.max(localUntil, last);
+            if (relayed.version() < localUntil) {
+                current.set(new Snapshot(-++localVersion, Instant.now().truncatedTo(ChronoUnit.SECONDS)));
+            }
+        }
+    }
+
+    private static Snapshot snapshot(BookChange change) {
+        return new Snapshot(change.offset(), change.changedAt().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Estado do catálogo em um dado momento.
+     *
+     * @param version      número da versão
+     * @param lastModified instante da última alteração, com precisão de segundos
+     */
+    public record Snapshot(long version, Instant lastModified) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Grava o snapshot do catálogo ao encerrar a aplicação, para que na subida seguinte
+ * as estruturas em memória sejam montadas a partir dele (veja {@link CatalogSource})
+ * em vez de lidas do banco. Se o snapshot já corresponde ao banco, nada é gravado.
+ * <p>
+ * A gravação acontece no {@link #stop()}, depois que o servidor web parou de
+ * receber requisições e o {@link BookWriteBehind} esvaziou a fila, para que o
+ * snapshot inclua as últimas alterações.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.warm-start.enabled", havingValue = "true")
+public class CatalogWarmStart implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmStart.class);
+
+    private final BookSnapshotService snapshots;
+    private final CatalogSource source;
+    private volatile boolean running;
+
+    public CatalogWarmStart(BookSnapshotService snapshots, CatalogSource source) {
+        this.snapshots = snapshots;
+        this.source = source;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        saveSnapshot();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Para depois do {@link BookWriteBehind} (fases menores param por último),
+     * quando todas as gravações pendentes já chegaram ao banco.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    /**
+     * Grava o snapshot em {@code catalog.snapshot.file}, se ele estiver desatualizado.
+     */
+    public void saveSnapshot() {
+        if (source.isSnapshotCurrent()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            long count = snapshots.save();
+            log.info("Snapshot gravado com {} livros em {} ms", count, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível gravar o snapshot para a próxima subida: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de CSV (RFC 4180) que grava um registro por vez diretamente no destino.
+ * Campos com vírgulas, aspas ou quebras de linha são escritos entre aspas.
+ */
+class CsvWriter {
+
+    private final Writer writer;
+
+    CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Grava um registro seguido de quebra de linha.
+     *
+     * @param fields valores do registro (valores nulos são gravados como campo vazio)
+     * @throws IOException em caso de erro de escrita
+     */
+    void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,22 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote de livros.
+ *
+ * @param imported quantidade de livros gravados
+ * @param failed   quantidade de registros rejeitados
+ * @param errors   detalhes dos registros rejeitados (limitado aos primeiros erros)
+ */
+public record ImportReport(long imported, long failed, List<RowError> errors) {
+
+    /**
+     * Erro ocorrido em um registro do arquivo importado.
+     *
+     * @param line    linha do arquivo em que o registro começa
+     * @param message descrição do problema
+     */
+    public record RowError(long line, String message) {
+    }
+}
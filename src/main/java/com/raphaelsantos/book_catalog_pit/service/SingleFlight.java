@@ -0,0 +1,166 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Junta chamadas idênticas e simultâneas em uma só (single-flight), habilitado por
+ * {@code catalog.single-flight.enabled=true}.
+ * <p>
+ * A primeira chamada de uma chave executa a consulta; as que chegam enquanto ela roda
+ * aguardam e recebem o mesmo resultado, ou a mesma exceção. As chamadas em andamento
+ * ficam em um {@link ConcurrentHashMap}, sem travas. Com {@code catalog.single-flight.ttl}
+ * maior que zero, o resultado continua sendo reaproveitado por esse tempo depois de pronto;
+ * qualquer alteração no catálogo descarta os resultados guardados. O descarte roda depois dos
+ * demais ouvintes da alteração, para que uma consulta iniciada em seguida já encontre o índice,
+ * a varredura e o catálogo em memória atualizados.
+ * <p>
+ * As chamadas são contadas em {@code catalog.single-flight.calls}, por operação e por
+ * papel ({@code leader} executou a consulta, {@code joined} reaproveitou), e a fração
+ * reaproveitada fica em {@code catalog.single-flight.collapse-ratio}.
+ */
+@Component
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Map<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${catalog.single-flight.enabled:false}") boolean enabled,
+                        @Value("${catalog.single-flight.ttl:0ms}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = ttl;
+
+        Gauge.builder("catalog.single-flight.in-flight", flights, Map::size)
+                .description("Chaves com consulta em andamento ou resultado guardado")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a consulta, ou aguarda a mesma consulta já em andamento.
+     *
+     * @param operation nome da operação, usado na chave e nas métricas
+     * @param key       argumentos da consulta; precisa implementar {@code equals} e {@code hashCode}
+     * @param call      consulta a executar
+     * @return resultado da consulta, compartilhado entre as chamadas juntadas
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        Counters counter = counters.computeIfAbsent(operation, this::register);
+        Key flightKey = new Key(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            counter.joined.increment();
+            return (T) await(existing);
+        }
+
+        counter.leader.increment();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+
+        flight.complete(result);
+        if (ttl.isPositive()) {
+            CompletableFuture.delayedExecutor(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> flights.remove(flightKey, flight));
+        } else {
+            flights.remove(flightKey, flight);
+        }
+        return result;
+    }
+
+    /**
+     * Descarta os resultados guardados quando um livro é alterado.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        flights.clear();
+    }
+
+    /**
+     * Descarta os resultados guardados quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        flights.clear();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original, para que quem aguardou receba o mesmo erro (404, 400...)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counters register(String operation) {
+        Counter leader = Counter.builder("catalog.single-flight.calls")
+                .description("Chamadas de leitura, por papel no single-flight")
+                .tag("operation", operation)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        Counter joined = Counter.builder("catalog.single-flight.calls")
+                .description("Chamadas de leitura, por papel no single-flight")
+                .tag("operation", operation)
+                .tag("role", "joined")
+                .register(meterRegistry);
+        Counters registered = new Counters(leader, joined);
+        Gauge.builder("catalog.single-flight.collapse-ratio", registered, Counters::collapseRatio)
+                .description("Fração das chamadas atendidas por uma consulta já em andamento")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return registered;
+    }
+
+    private record Key(String operation, Object args) {
+    }
+
+    private record Counters(Counter leader, Counter joined) {
+
+        double collapseRatio() {
+            double total = leader.count() + joined.count();
+            return total == 0 ? 0 : joined.count() / total;
+        }
+    }
+}
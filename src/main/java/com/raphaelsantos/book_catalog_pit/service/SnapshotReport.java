@@ -0,0 +1,10 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+/**
+ * Resultado da gravação ou restauração de um snapshot do catálogo.
+ *
+ * @param books  quantidade de livros gravados ou restaurados
+ * @param millis duração da operação, em milissegundos
+ */
+public record SnapshotReport(long books, long millis) {
+}
@@ -0,0 +1,78 @@
+package com.raphaelsantos.book_catalog_pit.store;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+
+import java.time.Instant;
+
+/**
+ * Visão de um livro do {@link OffHeapBookStore}, lida diretamente das colunas.
+ * Os campos numéricos não criam objetos; os textos são decodificados a cada chamada.
+ * Nas varreduras a mesma visão é reposicionada a cada livro, por isso ela não deve
+ * ser guardada fora do callback que a recebeu.
+ */
+public final class BookView {
+
+    private final OffHeapBookStore store;
+    int slot;
+
+    BookView(OffHeapBookStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
+    public long id() {
+        return store.id(slot);
+    }
+
+    public int publicationYear() {
+        return store.year(slot);
+    }
+
+    public Long version() {
+        return store.version(slot);
+    }
+
+    public Instant updatedAt() {
+        return store.updatedAt(slot);
+    }
+
+    public String title() {
+        return store.text(slot, 0);
+    }
+
+    public String author() {
+        return store.text(slot, 1);
+    }
+
+    public String genre() {
+        return store.text(slot, 2);
+    }
+
+    public String synopsis() {
+        return store.text(slot, 3);
+    }
+
+    /**
+     * @return resumo do livro, sem a sinopse
+     */
+    public BookSummary toSummary() {
+        return new BookSummary(id(), title(), author(), publicationYear(), genre());
+    }
+
+    /**
+     * @return nova instância do livro, fora do contexto de persistência
+     */
+    public Book toBook() {
+        Book book = new Book();
+        book.setId(id());
+        book.setTitle(title());
+        book.setAuthor(author());
+        book.setPublicationYear(publicationYear());
+        book.setGenre(genre());
+        book.setSynopsis(synopsis());
+        book.setVersion(version());
+        book.setUpdatedAt(updatedAt());
+        return book;
+    }
+}
@@ -0,0 +1,127 @@
+package com.raphaelsantos.book_catalog_pit.store;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code long} para {@code int} com endereçamento aberto e sondagem linear,
+ * sem objetos por entrada: apenas dois arrays, com no máximo 50% de ocupação.
+ * Remoções deslocam as entradas seguintes para trás, sem deixar marcas de remoção.
+ * Não é thread-safe.
+ */
+public final class LongIntHashMap {
+
+    /**
+     * Valor devolvido por {@link #get(long)} quando a chave não existe.
+     */
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    // Valor + 1, de modo que 0 indique posição vazia sem precisar preencher o array
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(long key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (values[i] == 0) {
+                return MISSING;
+            }
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+        }
+    }
+
+    /**
+     * Associa o valor (não negativo) à chave, substituindo o anterior.
+     */
+    public void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (values[i] == 0) {
+                keys[i] = key;
+                values[i] = value + 1;
+                size++;
+                return;
+            }
+            if (keys[i] == key) {
+                values[i] = value + 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove a chave, se existir.
+     *
+     * @return valor removido, ou {@link #MISSING}
+     */
+    public int remove(long key) {
+        int i = index(key);
+        while (values[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == 0) {
+            return MISSING;
+        }
+        int removed = values[i] - 1;
+
+        // Traz para a posição livre as entradas seguintes que só estão adiante por colisão
+        int free = i;
+        for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                keys[free] = keys[j];
+                values[free] = values[j];
+                free = j;
+            }
+        }
+        values[free] = 0;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private int index(long key) {
+        // Finalizador do SplitMix64: IDs sequenciais ficam bem espalhados
+        long z = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expected) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expected * 2 - 1)) << 1);
+    }
+}
@@ -0,0 +1,507 @@
+package com.raphaelsantos.book_catalog_pit.store;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cópia do catálogo em memória para atender leituras sem o banco nem o Hibernate,
+ * habilitada por {@code catalog.off-heap.enabled=true}.
+ * <p>
+ * Os campos numéricos ficam em arrays de primitivos, um por coluna, e os textos
+ * (título, autor, gênero e sinopse) em UTF-8 numa área fora do heap
+ * ({@link MemorySegment}). Cada livro ocupa uma posição nas colunas, encontrada
+ * pelo ID num mapa de endereçamento aberto. Assim, o catálogo inteiro custa ao
+ * coletor de lixo apenas uns poucos arrays, mesmo com milhões de livros, e
+ * varreduras e consultas pelo {@link BookView} não criam objetos por livro.
+ * <p>
+ * A cópia é carregada quando a aplicação termina de subir e atualizada a cada
+ * {@link BookChangedEvent}, após o commit; uma recarga monta uma cópia nova e a
+ * troca pela anterior de uma vez. Textos substituídos ou excluídos
+ * ficam na área até ela encher, quando os textos vivos são copiados para uma nova área.
+ */
+@Component
+public class OffHeapBookStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapBookStore.class);
+
+    // Marca de posição de livro excluído e de versão ou data nulas
+    private static final long REMOVED = Long.MIN_VALUE;
+    private static final long NULL = Long.MIN_VALUE;
+    // Tamanho de campo nulo
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int FIELDS = 4;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final long INITIAL_TEXT_BYTES = 1 << 20;
+
+    private final CatalogSource source;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reloading = new ReentrantLock();
+
+    private Columns columns;
+    // Alterações recebidas durante uma recarga, reaplicadas sobre a nova cópia
+    private List<BookChangedEvent> pending;
+
+    private volatile boolean ready;
+
+    public OffHeapBookStore(CatalogSource source,
+                            MeterRegistry meterRegistry,
+                            @Value("${catalog.off-heap.enabled:false}") boolean enabled) {
+        this.source = source;
+        this.enabled = enabled;
+
+        Gauge.builder("catalog.off-heap.books", this, OffHeapBookStore::size)
+                .description("Livros na cópia do catálogo em memória")
+                .register(meterRegistry);
+        Gauge.builder("catalog.off-heap.text", this, OffHeapBookStore::textBytes)
+                .description("Bytes reservados fora do heap para os textos dos livros")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se a cópia está carregada e pode atender leituras.
+     *
+     * @return {@code true} se habilitada e carregada
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Carrega todos os livros do catálogo ({@link CatalogSource}), sem entidades do Hibernate.
+     * <p>
+     * A nova cópia é montada sem a trava, enquanto a anterior continua atendendo; as
+     * alterações recebidas nesse intervalo são guardadas e reaplicadas na nova cópia
+     * antes da troca, para que nenhuma se perca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        reloading.lock();
+        try {
+            long started = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Columns loaded = new Columns();
+            try {
+                source.forEach(loaded::put);
+            } catch (RuntimeException | Error e) {
+                loaded.close();
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (BookChangedEvent event : pending) {
+                    loaded.apply(event);
+                }
+                pending = null;
+                if (columns != null) {
+                    columns.close();
+                }
+                columns = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Catálogo em memória carregado: {} livros, {} bytes de texto fora do heap, em {} ms",
+                    size(), textBytes(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            reloading.unlock();
+        }
+    }
+
+    /**
+     * Mantém a cópia sincronizada com as alterações feitas no catálogo.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (ready) {
+                columns.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega a cópia quando o catálogo inteiro é substituído.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        reload();
+    }
+
+    /**
+     * @return quantidade de livros na cópia
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes reservados fora do heap para os textos
+     */
+    public long textBytes() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.text.byteSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca um livro pelo ID e o devolve como uma nova instância de {@link Book}, fora do contexto de persistência.
+     *
+     * @param id identificador do livro
+     * @return livro encontrado, ou {@code null}
+     */
+    public Book findBook(long id) {
+        return read(id, BookView::toBook);
+    }
+
+    /**
+     * Lê um livro pelo ID através de uma visão sobre as colunas, sem copiar o livro.
+     * A visão só é válida dentro de {@code reader}.
+     *
+     * @param id     identificador do livro
+     * @param reader função aplicada à visão do livro
+     * @return resultado de {@code reader}, ou {@code null} se o livro não existir
+     */
+    public <R> R read(long id, Function<BookView, R> reader) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            int slot = columns.index.get(id);
+            return slot == LongIntHashMap.MISSING ? null : reader.apply(new BookView(this, slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre todos os livros, em ordem de cadastro, com uma única visão reposicionada a cada livro.
+     * A visão só é válida dentro de {@code action}.
+     *
+     * @param action ação aplicada a cada livro
+     */
+    public void forEach(Consumer<BookView> action) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            long[] ids = columns.ids;
+            BookView view = new BookView(this, 0);
+            for (int slot = 0; slot < columns.slots; slot++) {
+                if (ids[slot] != REMOVED) {
+                    view.slot = slot;
+                    action.accept(view);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lista o resumo de todos os livros, em ordem de cadastro.
+     *
+     * @return resumos dos livros
+     */
+    public List<BookSummary> summaries() {
+        List<BookSummary> summaries = new ArrayList<>(size());
+        forEach(view -> summaries.add(view.toSummary()));
+        return summaries;
+    }
+
+    @PreDestroy
+    void close() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (columns != null) {
+                columns.close();
+                columns = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Acesso às colunas pela visão, sempre sob a trava de leitura
+
+    long id(int slot) {
+        return columns.ids[slot];
+    }
+
+    int year(int slot) {
+        return columns.years[slot];
+    }
+
+    Long version(int slot) {
+        long version = columns.versions[slot];
+        return version == NULL ? null : version;
+    }
+
+    Instant updatedAt(int slot) {
+        long seconds = columns.updatedSeconds[slot];
+        return seconds == NULL ? null : Instant.ofEpochSecond(seconds, columns.updatedNanos[slot]);
+    }
+
+    /**
+     * Decodifica um dos campos de texto do livro: 0 título, 1 autor, 2 gênero, 3 sinopse.
+     */
+    String text(int slot, int field) {
+        MemorySegment text = columns.text;
+        long offset = columns.textOffsets[slot];
+        for (int i = 0; i < field; i++) {
+            int length = fieldLength(text, offset);
+            offset += Short.BYTES + (length == NULL_LENGTH ? 0 : length);
+        }
+        int length = fieldLength(text, offset);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(text, ValueLayout.JAVA_BYTE, offset + Short.BYTES, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int fieldLength(MemorySegment text, long offset) {
+        return text.get(ValueLayout.JAVA_SHORT_UNALIGNED, offset) & 0xFFFF;
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("Texto grande demais para o catálogo em memória: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Colunas e textos de uma cópia do catálogo. A cópia em uso só é alterada sob a trava
+     * de escrita; uma nova cópia é montada sem trava, por uma única thread.
+     */
+    private static final class Columns {
+
+        // Colunas, indexadas pela posição do livro
+        private long[] ids = new long[INITIAL_SLOTS];
+        private int[] years = new int[INITIAL_SLOTS];
+        private long[] versions = new long[INITIAL_SLOTS];
+        private long[] updatedSeconds = new long[INITIAL_SLOTS];
+        private int[] updatedNanos = new int[INITIAL_SLOTS];
+        private long[] textOffsets = new long[INITIAL_SLOTS];
+        private int[] textLengths = new int[INITIAL_SLOTS];
+        private int slots;
+        private int removed;
+        private final LongIntHashMap index = new LongIntHashMap(INITIAL_SLOTS);
+
+        // Textos dos livros, fora do heap
+        private Arena arena = Arena.ofShared();
+        private MemorySegment text = arena.allocate(INITIAL_TEXT_BYTES);
+        private long textUsed;
+        private long textLive;
+
+        private void apply(BookChangedEvent event) {
+            if (event.type() == BookChangedEvent.Type.DELETED) {
+                remove(event.bookId());
+            } else {
+                put(event.book());
+            }
+        }
+
+        private void close() {
+            arena.close();
+        }
+
+        private void put(Book book) {
+            put(book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationYear(), book.getGenre(),
+                    book.getSynopsis(), book.getVersion(), book.getUpdatedAt());
+        }
+
+        private void put(long id, String title, String author, int year, String genre, String synopsis,
+                         Long version, Instant updatedAt) {
+            byte[][] fields = {encode(title), encode(author), encode(genre), encode(synopsis)};
+            int length = 0;
+            for (byte[] field : fields) {
+                length += Short.BYTES + (field == null ? 0 : field.length);
+            }
+
+            int slot = index.get(id);
+            if (slot == LongIntHashMap.MISSING) {
+                slot = newSlot();
+                ids[slot] = id;
+                index.put(id, slot);
+            } else {
+                textLive -= textLengths[slot];
+                // Marca o texto anterior como descartável antes de uma eventual compactação
+                textLengths[slot] = 0;
+            }
+
+            long offset = reserve(length);
+            long position = offset;
+            for (byte[] field : fields) {
+                if (field == null) {
+                    text.set(ValueLayout.JAVA_SHORT_UNALIGNED, position, (short) NULL_LENGTH);
+                    position += Short.BYTES;
+                } else {
+                    text.set(ValueLayout.JAVA_SHORT_UNALIGNED, position, (short) field.length);
+                    MemorySegment.copy(field, 0, text, ValueLayout.JAVA_BYTE, position + Short.BYTES, field.length);
+                    position += Short.BYTES + field.length;
+                }
+            }
+
+            years[slot] = year;
+            versions[slot] = version == null ? NULL : version;
+            updatedSeconds[slot] = updatedAt == null ? NULL : updatedAt.getEpochSecond();
+            updatedNanos[slot] = updatedAt == null ? 0 : updatedAt.getNano();
+            textOffsets[slot] = offset;
+            textLengths[slot] = length;
+            textLive += length;
+        }
+
+        private void remove(long id) {
+            int slot = index.remove(id);
+            if (slot == LongIntHashMap.MISSING) {
+                return;
+            }
+            ids[slot] = REMOVED;
+            textLive -= textLengths[slot];
+            textLengths[slot] = 0;
+            removed++;
+
+            // Com muitas posições vazias, as varreduras passam a pular mais do que ler
+            if (removed > INITIAL_SLOTS && removed * 4 > slots) {
+                compactSlots();
+            }
+        }
+
+        private int newSlot() {
+            if (slots == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                years = Arrays.copyOf(years, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                updatedSeconds = Arrays.copyOf(updatedSeconds, capacity);
+                updatedNanos = Arrays.copyOf(updatedNanos, capacity);
+                textOffsets = Arrays.copyOf(textOffsets, capacity);
+                textLengths = Arrays.copyOf(textLengths, capacity);
+            }
+            return slots++;
+        }
+
+        private void compactSlots() {
+            int target = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (ids[slot] == REMOVED) {
+                    continue;
+                }
+                if (slot != target) {
+                    ids[target] = ids[slot];
+                    years[target] = years[slot];
+                    versions[target] = versions[slot];
+                    updatedSeconds[target] = updatedSeconds[slot];
+                    updatedNanos[target] = updatedNanos[slot];
+                    textOffsets[target] = textOffsets[slot];
+                    textLengths[target] = textLengths[slot];
+                    index.put(ids[target], target);
+                }
+                target++;
+            }
+            slots = target;
+            removed = 0;
+        }
+
+        /**
+         * Reserva espaço para um texto. Sem espaço, copia os textos vivos para uma nova área,
+         * com o dobro do necessário, e libera a anterior.
+         */
+        private long reserve(int length) {
+            if (textUsed + length > text.byteSize()) {
+                long capacity = Math.max(INITIAL_TEXT_BYTES, (textLive + length) * 2);
+                Arena newArena = Arena.ofShared();
+                MemorySegment newText = newArena.allocate(capacity);
+                long used = 0;
+                for (int slot = 0; slot < slots; slot++) {
+                    if (ids[slot] != REMOVED && textLengths[slot] > 0) {
+                        MemorySegment.copy(text, textOffsets[slot], newText, used, textLengths[slot]);
+                        textOffsets[slot] = used;
+                        used += textLengths[slot];
+                    }
+                }
+                arena.close();
+                arena = newArena;
+                text = newText;
+                textUsed = used;
+            }
+            long offset = textUsed;
+            textUsed += length;
+            return offset;
+        }
+    }
+}
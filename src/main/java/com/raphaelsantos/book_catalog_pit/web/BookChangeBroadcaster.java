@@ -0,0 +1,436 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.service.BookChange;
+import com.raphaelsantos.book_catalog_pit.service.BookChangeOutbox;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.BookChangesRelayedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Distribui as alterações do {@link BookChangeOutbox} para os clientes inscritos
+ * em {@code /books/changes} (Server-Sent Events).
+ * <p>
+ * Uma única thread lê o outbox, acordada após o commit de cada alteração e,
+ * na falta delas, a cada {@code catalog.changes.poll-interval}, e guarda as
+ * alterações mais recentes em um buffer circular em memória. Clientes parados
+ * não ocupam threads: só quando há algo a enviar (ou a cada
+ * {@code catalog.changes.heartbeat}) uma thread virtual é criada para o cliente,
+ * envia o que falta a partir da sua posição e termina. Um cliente lento atrasa
+ * apenas a si mesmo, e um envio que falha encerra a inscrição.
+ * <p>
+ * Os IDs do outbox são atribuídos antes do commit, então uma transação mais antiga
+ * pode aparecer depois de uma mais nova. Uma lacuna na sequência só é pulada depois de
+ * {@code catalog.changes.gap-timeout}, de modo que nenhuma alteração seja perdida.
+ * As alterações lidas também são publicadas como {@link BookChangesRelayedEvent}.
+ */
+@Component
+public class BookChangeBroadcaster implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeBroadcaster.class);
+
+    // Quantidade de alterações lidas do outbox (ou do buffer) por vez
+    private static final int READ_BATCH = 500;
+
+    private final BookChangeOutbox outbox;
+    private final ApplicationEventPublisher events;
+    private final int bufferSize;
+    private final Duration pollInterval;
+    private final Duration heartbeat;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Buffer circular com as alterações mais recentes já repassadas, em ordem de posição
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BookChange[] buffer;
+    private int bufferStart;
+    private int bufferCount;
+    private volatile long relayed;
+    private long gapSince;
+
+    private volatile boolean running;
+    private volatile Thread poller;
+
+    public BookChangeBroadcaster(BookChangeOutbox outbox,
+                                 ApplicationEventPublisher events,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${catalog.changes.buffer-size:10000}") int bufferSize,
+                                 @Value("${catalog.changes.poll-interval:1s}") Duration pollInterval,
+                                 @Value("${catalog.changes.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${catalog.changes.gap-timeout:5s}") Duration gapTimeout,
+                                 @Value("${catalog.changes.retention:7d}") Duration retention,
+                                 @Value("${catalog.changes.timeout:30m}") Duration timeout) {
+        this.outbox = outbox;
+        this.events = events;
+        this.buffer = new BookChange[bufferSize];
+        this.bufferSize = bufferSize;
+        this.pollInterval = pollInterval;
+        this.heartbeat = heartbeat;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+        this.timeout = timeout;
+
+        Gauge.builder("catalog.changes.subscribers", subscribers, Set::size)
+                .description("Clientes inscritos no stream de alterações")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inscreve um cliente no stream de alterações.
+     * <p>
+     * Se a posição informada já tiver sido removida do outbox, o cliente recebe um
+     * evento {@code RESET} e passa a receber apenas as novas alterações: ele precisa
+     * recarregar o catálogo, pois perdeu alterações.
+     *
+     * @param from posição da última alteração recebida pelo cliente, ou {@code null} para receber só as novas
+     * @return emissor do stream, encerrado após {@code catalog.changes.timeout}
+     */
+    public SseEmitter subscribe(Long from) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        long current = relayed;
+        boolean reset = false;
+        if (from != null && from < current) {
+            Long first = outbox.firstOffset();
+            reset = first == null || first > from + 1;
+        }
+        long cursor = from == null || reset ? current : from;
+
+        Subscriber subscriber = new Subscriber(emitter, cursor, reset);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Lê o outbox logo após o commit de uma alteração.
+     *
+     * @param event alteração realizada em um livro
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.remote()) {
+            pollNow();
+        }
+    }
+
+    /**
+     * Lê o outbox logo após a substituição do catálogo.
+     *
+     * @param event substituição do catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        if (!event.remote()) {
+            pollNow();
+        }
+    }
+
+    /**
+     * Acorda a thread de leitura para que confira o outbox imediatamente,
+     * sem esperar {@code catalog.changes.poll-interval}.
+     */
+    public void pollNow() {
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * @return posição da última alteração repassada aos clientes
+     */
+    long relayed() {
+        return relayed;
+    }
+
+    /**
+     * @return quantidade de clientes inscritos
+     */
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Lê do outbox as alterações posteriores à última repassada e avisa os clientes.
+     * Chamado apenas pela thread de leitura (e pelos testes).
+     */
+    void poll() {
+        boolean advanced = false;
+        List<BookChange> found;
+        do {
+            found = outbox.readAfter(relayed, READ_BATCH);
+            List<BookChange> accepted = new ArrayList<>(found.size());
+            long last = relayed;
+            for (BookChange change : found) {
+                if (change.offset() != last + 1) {
+                    if (!gapExpired()) {
+                        break;
+                    }
+                }
+                // A lacuna anterior foi preenchida ou pulada: uma nova lacuna começa a contar do zero
+                gapSince = 0;
+                accepted.add(change);
+                last = change.offset();
+            }
+            if (accepted.isEmpty()) {
+                break;
+            }
+
+            append(accepted);
+            events.publishEvent(new BookChangesRelayedEvent(accepted));
+            advanced = true;
+        } while (found.size() == READ_BATCH);
+
+        if (advanced) {
+            subscribers.forEach(this::schedule);
+        }
+    }
+
+    // A lacuna é de uma transação ainda não confirmada ou de uma desfeita; esta não vai aparecer nunca
+    private boolean gapExpired() {
+        long now = System.nanoTime();
+        if (gapSince == 0) {
+            gapSince = now;
+        }
+        return now - gapSince >= gapTimeout.toNanos();
+    }
+
+    private void append(List<BookChange> changes) {
+        lock.writeLock().lock();
+        try {
+            for (BookChange change : changes) {
+                if (bufferCount == bufferSize) {
+                    buffer[bufferStart] = null;
+                    bufferStart = (bufferStart + 1) % bufferSize;
+                    bufferCount--;
+                }
+                buffer[(bufferStart + bufferCount) % bufferSize] = change;
+                bufferCount++;
+            }
+            relayed = changes.getLast().offset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna as alterações já repassadas posteriores à posição informada: do buffer,
+     * se ele ainda as tiver, ou do outbox, para clientes que retomam de uma posição antiga.
+     */
+    private List<BookChange> readAfter(long offset) {
+        long limit;
+        lock.readLock().lock();
+        try {
+            limit = relayed;
+            if (bufferCount > 0 && offset >= buffer[bufferStart].offset() - 1) {
+                List<BookChange> changes = new ArrayList<>(Math.min(bufferCount, READ_BATCH));
+                for (int i = firstAfter(offset); i < bufferCount && changes.size() < READ_BATCH; i++) {
+                    changes.add(buffer[(bufferStart + i) % bufferSize]);
+                }
+                return changes;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Não repassa alterações que a thread de leitura ainda não confirmou
+        return outbox.readAfter(offset, READ_BATCH).stream()
+                .filter(change -> change.offset() <= limit)
+                .toList();
+    }
+
+    // Busca binária pela primeira posição do buffer maior que offset
+    private int firstAfter(long offset) {
+        int low = 0;
+        int high = bufferCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer[(bufferStart + middle) % bufferSize].offset() <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Agenda o envio para o cliente, a menos que ele já tenha um envio em andamento,
+     * que então verá o aviso e fará mais uma rodada.
+     */
+    private void schedule(Subscriber subscriber) {
+        subscriber.dirty = true;
+        if (subscriber.busy.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            while (subscriber.dirty) {
+                subscriber.dirty = false;
+                deliver(subscriber);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado ou stream já encerrado
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao enviar alterações: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.busy.set(false);
+        }
+
+        if (subscriber.dirty && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void deliver(Subscriber subscriber) throws IOException {
+        SseEmitter emitter = subscriber.emitter;
+        if (subscriber.reset) {
+            subscriber.reset = false;
+            emitter.send(SseEmitter.event().id(Long.toString(subscriber.cursor)).name("RESET").data(""));
+        }
+
+        boolean sent = false;
+        while (subscriber.cursor < relayed) {
+            List<BookChange> changes = readAfter(subscriber.cursor);
+            if (changes.isEmpty()) {
+                break;
+            }
+            for (BookChange change : changes) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.offset()))
+                        .name(change.type())
+                        .data(change, MediaType.APPLICATION_JSON));
+                subscriber.cursor = change.offset();
+            }
+            sent = true;
+        }
+
+        if (!sent && subscriber.heartbeat) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+        subscriber.heartbeat = false;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        relayed = outbox.lastOffset();
+        running = true;
+        poller = Thread.ofPlatform().name("book-change-poller").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(poller);
+        try {
+            poller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long nextHeartbeat = System.nanoTime() + heartbeat.toNanos();
+        long nextPurge = System.nanoTime();
+        while (running) {
+            try {
+                poll();
+
+                long now = System.nanoTime();
+                if (now >= nextHeartbeat) {
+                    // Detecta clientes que desconectaram sem avisar
+                    subscribers.forEach(subscriber -> {
+                        subscriber.heartbeat = true;
+                        schedule(subscriber);
+                    });
+                    nextHeartbeat = now + heartbeat.toNanos();
+                }
+                if (now >= nextPurge) {
+                    int purged = outbox.purge(Instant.now().minus(retention));
+                    if (purged > 0) {
+                        log.info("{} alterações antigas removidas do outbox", purged);
+                    }
+                    nextPurge = now + Duration.ofHours(1).toNanos();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao ler o outbox de alterações: {}", e.getMessage());
+            }
+
+            // Com uma lacuna pendente, volta logo para conferir se ela foi preenchida
+            long wait = gapSince != 0 ? Math.min(pollInterval.toNanos(), Duration.ofMillis(50).toNanos())
+                    : pollInterval.toNanos();
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * Cliente inscrito e a posição da última alteração enviada a ele.
+     * Os campos só são alterados pelo envio em andamento ({@code busy}).
+     */
+    private static class Subscriber {
+
+        final SseEmitter emitter;
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile boolean dirty;
+        volatile boolean heartbeat;
+        volatile boolean reset;
+        volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor, boolean reset) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.reset = reset;
+        }
+    }
+}
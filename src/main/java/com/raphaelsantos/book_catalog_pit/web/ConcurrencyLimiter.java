@@ -0,0 +1,69 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Limite global de requisições em andamento, sem locks.
+ * <p>
+ * Em vez de um único contador disputado por todas as threads, o limite é
+ * dividido em faixas, cada uma com o seu contador e a sua parte das vagas.
+ * Cada thread começa pela sua faixa e só passa para as outras quando ela está
+ * cheia, de modo que uma requisição só é recusada quando todas as faixas estão cheias.
+ */
+class ConcurrencyLimiter {
+
+    // Distância entre os contadores, para que cada um fique em uma linha de cache diferente
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray counters;
+    private final int[] limits;
+
+    ConcurrencyLimiter(int maxConcurrent) {
+        int stripes = Math.max(1, Math.min(maxConcurrent, Runtime.getRuntime().availableProcessors()));
+        this.counters = new AtomicIntegerArray(stripes * PADDING);
+        this.limits = new int[stripes];
+        for (int i = 0; i < stripes; i++) {
+            limits[i] = maxConcurrent / stripes + (i < maxConcurrent % stripes ? 1 : 0);
+        }
+    }
+
+    /**
+     * Tenta ocupar uma vaga.
+     *
+     * @return faixa da vaga ocupada, a ser informada em {@link #release(int)}, ou -1 se não houver vaga
+     */
+    int tryAcquire() {
+        int start = (int) (Thread.currentThread().threadId() % limits.length);
+        for (int i = 0; i < limits.length; i++) {
+            int stripe = (start + i) % limits.length;
+            int index = stripe * PADDING;
+            int current;
+            while ((current = counters.get(index)) < limits[stripe]) {
+                if (counters.compareAndSet(index, current, current + 1)) {
+                    return stripe;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Libera a vaga ocupada por {@link #tryAcquire()}.
+     *
+     * @param stripe faixa retornada por {@link #tryAcquire()}
+     */
+    void release(int stripe) {
+        counters.decrementAndGet(stripe * PADDING);
+    }
+
+    /**
+     * @return quantidade de requisições em andamento
+     */
+    int inFlight() {
+        int total = 0;
+        for (int i = 0; i < limits.length; i++) {
+            total += counters.get(i * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,100 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita a quantidade de requisições ao catálogo processadas ao mesmo tempo
+ * quando a aplicação roda com threads virtuais ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Com threads virtuais o Tomcat deixa de ter um limite natural de threads,
+ * e milhares de requisições podem disputar as poucas conexões do pool.
+ * O filtro usa um semáforo dimensionado pelo pool do Hikari: quem não
+ * consegue uma vaga dentro do tempo configurado recebe 503 com {@code Retry-After}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Order(DatabaseConcurrencyFilter.ORDER)
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Depois do {@link ListPageCacheFilter}: só disputa vaga quem vai de fato ao banco.
+     */
+    static final int ORDER = ListPageCacheFilter.ORDER + 10;
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    @Autowired
+    public DatabaseConcurrencyFilter(DataSource dataSource,
+                                     @Value("${catalog.db-concurrency.max-permits:0}") int maxPermits,
+                                     @Value("${catalog.db-concurrency.acquire-timeout:2s}") Duration acquireTimeout) {
+        this(new Semaphore(maxPermits > 0 ? maxPermits : poolSize(dataSource), true), acquireTimeout);
+    }
+
+    DatabaseConcurrencyFilter(Semaphore permits, Duration acquireTimeout) {
+        this.permits = permits;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Usa o tamanho máximo do pool do Hikari quando nenhum limite é configurado.
+     */
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10;
+    }
+
+    /**
+     * Limita as páginas do catálogo ({@code /books}) e a API REST ({@code /api/}), que consultam o banco.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/books") && !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
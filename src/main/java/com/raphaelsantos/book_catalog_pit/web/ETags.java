@@ -0,0 +1,51 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.CatalogVersion;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * Utilitário para respostas HTTP condicionais baseadas na versão dos livros.
+ * As ETags são fortes e derivadas apenas de dados já em memória,
+ * de modo que uma resposta 304 não exige consulta nem renderização.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Verifica se o cliente já possui a versão atual do livro.
+     * Também preenche os cabeçalhos {@code ETag} e {@code Last-Modified} da resposta.
+     *
+     * @param request requisição atual
+     * @param book    livro a ser enviado
+     * @return {@code true} se a resposta pode ser 304 (NOT_MODIFIED)
+     */
+    public static boolean checkNotModified(WebRequest request, Book book) {
+        String etag = "\"b" + book.getId() + "-" + book.getVersion() + "\"";
+        return check(request, etag, book.getUpdatedAt());
+    }
+
+    /**
+     * Verifica se o cliente já possui a versão atual de uma listagem do catálogo.
+     * Também preenche os cabeçalhos {@code ETag} e {@code Last-Modified} da resposta.
+     *
+     * @param request  requisição atual
+     * @param snapshot versão atual do catálogo
+     * @return {@code true} se a resposta pode ser 304 (NOT_MODIFIED)
+     */
+    public static boolean checkNotModified(WebRequest request, CatalogVersion.Snapshot snapshot) {
+        String etag = "\"c" + snapshot.version() + "\"";
+        return check(request, etag, snapshot.lastModified());
+    }
+
+    private static boolean check(WebRequest request, String etag, Instant lastModified) {
+        if (lastModified == null) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified.toEpochMilli());
+    }
+}
@@ -0,0 +1,209 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.cache.ListPageCache;
+import com.raphaelsantos.book_catalog_pit.service.BookWriteBehind;
+import com.raphaelsantos.book_catalog_pit.service.CatalogVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * Responde {@code GET /books} a partir do {@link ListPageCache} quando a mesma
+ * combinação de busca, filtros e cursor já foi renderizada para a versão atual
+ * do catálogo, sem passar pelo controlador, pelo banco ou pelo Thymeleaf.
+ * <p>
+ * Na falta, a página é enviada ao cliente à medida que é renderizada e, ao mesmo
+ * tempo, copiada para o cache (até {@code catalog.list-cache.max-entry-bytes}).
+ * Páginas com mensagens de sucesso (flash), ou pedidas por sessões com gravações
+ * ainda na fila do {@link BookWriteBehind}, nunca são lidas nem gravadas no cache.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.list-cache.enabled", havingValue = "true")
+@Order(ListPageCacheFilter.ORDER)
+public class ListPageCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Depois do {@link LoadSheddingFilter} e antes do {@link DatabaseConcurrencyFilter},
+     * para que páginas servidas do cache não ocupem vagas do banco.
+     */
+    static final int ORDER = LoadSheddingFilter.ORDER + 10;
+
+    private static final String FLASH_MAPS = SessionFlashMapManager.class.getName() + ".FLASH_MAPS";
+
+    private final ListPageCache cache;
+    private final CatalogVersion catalogVersion;
+    private final int maxEntryBytes;
+
+    public ListPageCacheFilter(ListPageCache cache,
+                               CatalogVersion catalogVersion,
+                               @Value("${catalog.list-cache.max-entry-bytes:262144}") int maxEntryBytes) {
+        this.cache = cache;
+        this.catalogVersion = catalogVersion;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || !"/books".equals(path) || hasSessionState(request);
+    }
+
+    private boolean hasSessionState(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null && (session.getAttribute(FLASH_MAPS) != null
+                || session.getAttribute(BookWriteBehind.SESSION_TICKET) != null
+                || session.getAttribute(BookWriteBehind.SESSION_TICKETS) != null);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        // A versão na chave impede que uma página renderizada antes de uma alteração seja servida depois dela
+        long version = catalogVersion.current().version();
+        String key = version + "?" + Objects.toString(request.getQueryString(), "");
+
+        ListPageCache.Page page = cache.get(key);
+        if (page != null) {
+            serve(request, response, page);
+            return;
+        }
+
+        TeeResponse tee = new TeeResponse(response, maxEntryBytes);
+        chain.doFilter(request, tee);
+
+        byte[] body = tee.captured();
+        if (body != null && response.getStatus() == HttpServletResponse.SC_OK
+                && catalogVersion.current().version() == version) {
+            cache.put(key, new ListPageCache.Page(response.getContentType(),
+                    response.getHeader(HttpHeaders.ETAG), response.getHeader(HttpHeaders.LAST_MODIFIED), body));
+        }
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, ListPageCache.Page page)
+            throws IOException {
+        if (page.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, page.etag());
+            if (page.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        if (page.lastModified() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, page.lastModified());
+        }
+        response.setContentType(page.contentType());
+        response.setContentLength(page.body().length);
+        response.getOutputStream().write(page.body());
+    }
+
+    /**
+     * Repassa o corpo ao cliente e guarda uma cópia, desistindo da cópia se ela passar do limite.
+     */
+    private static class TeeResponse extends HttpServletResponseWrapper {
+
+        private final int maxBytes;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        TeeResponse(HttpServletResponse response, int maxBytes) {
+            super(response);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                        if (copy != null) {
+                            copy.write(b);
+                            checkLimit();
+                        }
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target.write(b, off, len);
+                        if (copy != null) {
+                            copy.write(b, off, len);
+                            checkLimit();
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        private void checkLimit() {
+            if (copy.size() > maxBytes) {
+                copy = null;
+            }
+        }
+
+        /**
+         * @return corpo enviado ao cliente, ou {@code null} se passou do limite
+         */
+        byte[] captured() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Protege a listagem e a busca do catálogo, as rotas mais caras da aplicação,
+ * descartando requisições em excesso em vez de deixá-las disputar o banco.
+ * <p>
+ * Cada cliente (endereço IP) tem um limite de requisições por segundo; quem
+ * passa dele recebe 429 (TOO_MANY_REQUESTS). Além disso, no máximo
+ * {@code catalog.load-shedding.max-concurrent} dessas requisições são
+ * processadas ao mesmo tempo, e as excedentes recebem 503 na hora, sem esperar
+ * na fila. As duas respostas trazem {@code Retry-After}.
+ * <p>
+ * As rotas em fluxo ({@code /api/stream/books}) respondem de forma assíncrona e
+ * ocupam a vaga até o fim do envio, não apenas até a thread de requisição ser liberada.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.load-shedding.enabled", havingValue = "true")
+@Order(LoadSheddingFilter.ORDER)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    /**
+     * Primeiro filtro do catálogo: requisições descartadas não chegam ao cache nem ao banco.
+     */
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private static final Set<String> PATHS = Set.of("/books", "/api/books/search",
+            "/api/stream/books", "/api/stream/books/search");
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Counter served;
+    private final Counter throttled;
+    private final Counter shed;
+
+    @Autowired
+    public LoadSheddingFilter(MeterRegistry meterRegistry,
+                              @Value("${catalog.load-shedding.requests-per-second:10}") double requestsPerSecond,
+                              @Value("${catalog.load-shedding.burst:20}") int burst,
+                              @Value("${catalog.load-shedding.max-concurrent:16}") int maxConcurrent) {
+        this(new RateLimiter(requestsPerSecond, burst, System::nanoTime), new ConcurrencyLimiter(maxConcurrent),
+                meterRegistry);
+    }
+
+    LoadSheddingFilter(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.served = outcome(meterRegistry, "served");
+        this.throttled = outcome(meterRegistry, "throttled");
+        this.shed = outcome(meterRegistry, "shed");
+        Gauge.builder("catalog.load-shedding.in-flight", concurrencyLimiter, ConcurrencyLimiter::inFlight)
+                .description("Requisições de listagem e busca em andamento")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("catalog.load-shedding.requests")
+                .description("Requisições de listagem e busca atendidas ou descartadas")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || !PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long wait = rateLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            throttled.increment();
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        int stripe = concurrencyLimiter.tryAcquire();
+        if (stripe < 0) {
+            shed.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        boolean async = false;
+        try {
+            served.increment();
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(stripe));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                concurrencyLimiter.release(stripe);
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga quando a resposta assíncrona termina, com sucesso, erro ou tempo esgotado.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final int stripe;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(int stripe) {
+            this.stripe = stripe;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release(stripe);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.metrics.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Registra quantos comandos SQL e quantas entidades cada requisição ao catálogo
+ * precisou, nas métricas {@code catalog.request.queries} e {@code catalog.request.entities}.
+ * <p>
+ * Requisições acima de {@code catalog.query-guard.max-queries} são registradas
+ * no log. Com {@code catalog.query-guard.strict=true}, usado nos testes, o
+ * comando que passa do limite falha no próprio Hibernate (veja {@link QueryCounter#limit(long)}),
+ * antes de a resposta começar a ser escrita, tornando visíveis problemas de N+1 e
+ * carregamentos excessivos.
+ * A importação em lote fica de fora, pois executa muitos comandos por natureza.
+ */
+@Component
+@Order(QueryCountFilter.ORDER)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    /**
+     * Depois do {@link DatabaseConcurrencyFilter}, contando apenas as requisições admitidas.
+     */
+    static final int ORDER = DatabaseConcurrencyFilter.ORDER + 10;
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final DistributionSummary queries;
+    private final DistributionSummary entities;
+    private final int maxQueries;
+    private final boolean strict;
+
+    public QueryCountFilter(MeterRegistry registry,
+                            @Value("${catalog.query-guard.max-queries:10}") int maxQueries,
+                            @Value("${catalog.query-guard.strict:false}") boolean strict) {
+        this.queries = DistributionSummary.builder("catalog.request.queries")
+                .description("Comandos SQL executados por requisição")
+                .register(registry);
+        this.entities = DistributionSummary.builder("catalog.request.entities")
+                .description("Entidades carregadas por requisição")
+                .register(registry);
+        this.maxQueries = maxQueries;
+        this.strict = strict;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/books") || path.startsWith("/api/"))
+                || path.startsWith("/books/import");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        QueryCounter.reset();
+        if (strict) {
+            QueryCounter.limit(maxQueries);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.limit(0);
+            queries.record(QueryCounter.queries());
+            entities.record(QueryCounter.entities());
+        }
+
+        long executed = QueryCounter.queries();
+        if (executed > maxQueries) {
+            log.warn("{} {} executou {} comandos SQL (limite: {})",
+                    request.getMethod(), request.getRequestURI(), executed, maxQueries);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisições por cliente no modelo de balde de fichas: cada cliente
+ * pode fazer até {@code burst} requisições seguidas, e as fichas são repostas
+ * à taxa de {@code permitsPerSecond}.
+ * <p>
+ * O balde de cada cliente é um único {@link AtomicLong} com o instante em que
+ * ele estaria cheio novamente (o "tempo teórico de chegada" do algoritmo GCRA),
+ * atualizado por compare-and-set, sem locks e sem uma thread para repor fichas.
+ * Baldes de clientes inativos são descartados após um minuto.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        this.intervalNanos = (long) (1_000_000_000 / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Consome uma ficha do balde do cliente.
+     *
+     * @param client identificador do cliente
+     * @return zero se havia ficha, ou o tempo em nanossegundos até a próxima ficha
+     */
+    long tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+}
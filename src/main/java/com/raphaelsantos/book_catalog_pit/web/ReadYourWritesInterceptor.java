@@ -0,0 +1,47 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.service.BookWriteBehind;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Garante que uma sessão veja as próprias gravações feitas pelo
+ * {@link BookWriteBehind}: antes de atender uma leitura, aguarda (até
+ * {@code catalog.write-behind.read-timeout}) que o último envio da sessão
+ * tenha sido gravado. Sessões sem envios pendentes não esperam.
+ * <p>
+ * As falhas de gravação não são consumidas aqui, e sim pela listagem, que é a página que as exibe
+ * ({@link BookWriteBehind#takeFailures(java.util.Collection)}).
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final BookWriteBehind writeBehind;
+    private final Duration timeout;
+
+    public ReadYourWritesInterceptor(BookWriteBehind writeBehind,
+                                     @Value("${catalog.write-behind.read-timeout:2s}") Duration timeout) {
+        this.writeBehind = writeBehind;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session == null || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+
+        if (session.getAttribute(BookWriteBehind.SESSION_TICKET) instanceof Long ticket
+                && writeBehind.awaitFlushed(ticket, timeout)) {
+            session.removeAttribute(BookWriteBehind.SESSION_TICKET);
+        }
+        return true;
+    }
+}
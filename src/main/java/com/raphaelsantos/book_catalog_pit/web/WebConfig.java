@@ -0,0 +1,41 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configurações da camada web.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesInterceptor readYourWrites;
+
+    public WebConfig(ReadYourWritesInterceptor readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWrites).addPathPatterns("/books", "/books/**", "/api/**");
+    }
+
+    /**
+     * Gera ETags para as respostas da API REST que ainda não possuem uma
+     * (como buscas e consultas em lote) e responde 304 (NOT_MODIFIED)
+     * quando o cliente já possui a versão atual do recurso.
+     *
+     * @return registro do filtro para as rotas {@code /api/*}
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> apiEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,16 @@
+create sequence book_seq start with 1 increment by 50;
+
+create table book (
+    id               bigint        not null,
+    title            varchar(255)  not null,
+    author           varchar(255)  not null,
+    publication_year integer       not null check (publication_year >= 1000 and publication_year <= 2100),
+    genre            varchar(100),
+    synopsis         varchar(2000),
+    version          bigint,
+    updated_at       timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_book_genre on book (genre);
+create index idx_book_publication_year on book (publication_year);
@@ -0,0 +1,3 @@
+-- Ordenação e buscas por igualdade/prefixo em título e autor
+create index idx_book_title on book (title);
+create index idx_book_author on book (author);
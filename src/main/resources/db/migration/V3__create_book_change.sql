@@ -0,0 +1,10 @@
+-- Outbox de alterações do catálogo, gravado na mesma transação da alteração
+create table book_change (
+    id         bigint generated by default as identity,
+    type       varchar(10)                 not null,
+    book_id    bigint,
+    changed_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_book_change_changed_at on book_change (changed_at);
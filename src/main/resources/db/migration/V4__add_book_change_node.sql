@@ -0,0 +1,2 @@
+-- Nó do cluster que fez a alteração, para que cada nó aplique apenas as dos outros
+alter table book_change add column node varchar(36);
@@ -0,0 +1,44 @@
+package com.raphaelsantos.book_catalog_pit.cache;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BookCacheTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(BookCache.BY_ID);
+    private final BookCache bookCache = new BookCache(cacheManager);
+
+    @Test
+    void onBookChanged_shouldEvictOnlyTheChangedBook() {
+        Cache cache = cacheManager.getCache(BookCache.BY_ID);
+        cache.put(1L, bookWithId(1L));
+        cache.put(2L, bookWithId(2L));
+
+        bookCache.onBookChanged(BookChangedEvent.updated(bookWithId(1L)));
+
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+    }
+
+    @Test
+    void onBookChanged_whenDeleted_shouldEvictBook() {
+        Cache cache = cacheManager.getCache(BookCache.BY_ID);
+        cache.put(1L, bookWithId(1L));
+
+        bookCache.onBookChanged(BookChangedEvent.deleted(1L));
+
+        assertNull(cache.get(1L));
+    }
+
+    private Book bookWithId(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,68 @@
+package com.raphaelsantos.book_catalog_pit.cache;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class BookCacheWarmerTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void warmUp_shouldReloadBooksSavedOnShutdown() throws Exception {
+        Path file = dir.resolve("hot-books.txt");
+        BookService service = mock(BookService.class);
+
+        CaffeineCacheManager before = cacheManager();
+        before.getCache(BookCache.BY_ID).put(1L, bookWithId(1L));
+        before.getCache(BookCache.BY_ID).put(2L, bookWithId(2L));
+        new BookCacheWarmer(before, service, file, 100).saveHotKeys();
+
+        assertEquals(2, Files.readAllLines(file).size());
+
+        List<Long> ids = Files.readAllLines(file).stream().map(Long::valueOf).toList();
+        when(service.findByIds(ids)).thenReturn(List.of(bookWithId(ids.get(0)), bookWithId(ids.get(1))));
+
+        CaffeineCacheManager after = cacheManager();
+        new BookCacheWarmer(after, service, file, 100).warmUp();
+
+        Cache cache = after.getCache(BookCache.BY_ID);
+        assertNotNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+    }
+
+    @Test
+    void warmUp_whenFileIsMissing_shouldDoNothing() {
+        BookService service = mock(BookService.class);
+
+        new BookCacheWarmer(cacheManager(), service, dir.resolve("ausente.txt"), 100).warmUp();
+
+        verifyNoInteractions(service);
+    }
+
+    private CaffeineCacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager(BookCache.BY_ID);
+        manager.setCacheSpecification("maximumSize=100");
+        return manager;
+    }
+
+    private Book bookWithId(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+}
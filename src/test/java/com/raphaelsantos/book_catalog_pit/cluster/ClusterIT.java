@@ -0,0 +1,204 @@
+package com.raphaelsantos.book_catalog_pit.cluster;
+
+import com.raphaelsantos.book_catalog_pit.BookCatalogPitApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sobe dois nós em processos separados, compartilhando o mesmo banco em arquivo, e mede
+ * quanto tempo uma alteração feita em um nó leva para aparecer nas leituras do outro.
+ * O nó A avisa o B por UDP; o B não avisa o A, que depende só da leitura periódica do outbox.
+ */
+public class ClusterIT {
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    // Limite de desatualização esperado, com folga para a máquina de testes
+    private static final Duration STALENESS_BOUND = POLL_INTERVAL.plusSeconds(2);
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @TempDir
+    private Path dir;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    private final List<Process> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() throws InterruptedException {
+        for (Process node : nodes) {
+            node.destroy();
+        }
+        for (Process node : nodes) {
+            if (!node.waitFor(30, TimeUnit.SECONDS)) {
+                node.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    void update_onOneNode_shouldReachOtherNodeWithinStalenessBound() throws Exception {
+        int udpA = freeUdpPort();
+        int udpB = freeUdpPort();
+        // O primeiro nó abre o banco e aplica as migrações; o segundo se conecta a ele
+        String a = start("a", udpA, "localhost:" + udpB);
+        awaitReady(a);
+        String b = start("b", udpB, "");
+        awaitReady(b);
+
+        post(a + "/books", form("Livro Distribuído", "2001"));
+        Long id = findId(a, "Distribuído");
+        // Guarda o livro no cache do nó B
+        assertTrue(awaitBody(b + "/api/books/" + id, "Livro Distribuído", STALENESS_BOUND) != null);
+
+        // A -> B: com aviso por UDP
+        post(a + "/books/" + id, form("Livro Atualizado em A", "2002"));
+        assertTrue(awaitBody(b + "/api/books/" + id, "Livro Atualizado em A", STALENESS_BOUND) != null,
+                "Nó B continuou com o livro desatualizado");
+
+        // B -> A: sem aviso, apenas pela leitura periódica do outbox
+        assertTrue(awaitBody(a + "/api/books/" + id, "Livro Atualizado em A", STALENESS_BOUND) != null);
+        post(b + "/books/" + id, form("Livro Atualizado em B", "2003"));
+        assertTrue(awaitBody(a + "/api/books/" + id, "Livro Atualizado em B", STALENESS_BOUND) != null,
+                "Nó A continuou com o livro desatualizado");
+
+        // A busca do nó B também foi atualizada
+        assertEquals(id, findId(b, "Atualizado"));
+
+        // Com as mesmas alterações aplicadas, os dois nós devolvem a mesma versão da listagem
+        assertTrue(awaitSameETag(a + "/api/books", b + "/api/books", STALENESS_BOUND),
+                "Os nós devolvem versões diferentes da listagem");
+    }
+
+    private String start(String name, int udpPort, String peers) throws IOException {
+        int httpPort = freeTcpPort();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process process = new ProcessBuilder(java, "-Xmx256m",
+                "-cp", System.getProperty("java.class.path"),
+                BookCatalogPitApplication.class.getName(),
+                "--spring.profiles.active=cluster",
+                "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("catalog").toAbsolutePath() + ";AUTO_SERVER=TRUE",
+                "--server.port=" + httpPort,
+                "--catalog.cluster.node-id=" + name,
+                "--catalog.cluster.port=" + udpPort,
+                "--catalog.cluster.peers=" + peers,
+                "--catalog.changes.poll-interval=" + POLL_INTERVAL.toMillis() + "ms")
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("node-" + name + ".log").toFile())
+                .start();
+        nodes.add(process);
+        return "http://localhost:" + httpPort;
+    }
+
+    private void awaitReady(String node) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (get(node + "/actuator/health").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Ainda subindo
+            }
+            Thread.sleep(250);
+        }
+        throw new AssertionError("Nó " + node + " não subiu; veja os logs em " + dir);
+    }
+
+    private Long findId(String node, String term) throws IOException, InterruptedException {
+        String body = get(node + "/api/books/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8)).body();
+        Matcher matcher = ID.matcher(body);
+        assertTrue(matcher.find(), "Livro não encontrado: " + body);
+        return Long.valueOf(matcher.group(1));
+    }
+
+    /**
+     * Lê o recurso até que a resposta contenha o texto esperado.
+     *
+     * @return corpo da resposta, ou {@code null} se o texto não apareceu no prazo
+     */
+    private String awaitBody(String uri, String expected, Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        do {
+            HttpResponse<String> response = get(uri);
+            if (response.statusCode() == 200 && response.body().contains(expected)) {
+                return response.body();
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return null;
+    }
+
+    private boolean awaitSameETag(String first, String second, Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        do {
+            Optional<String> etag = get(first).headers().firstValue("ETag");
+            if (etag.isPresent() && etag.equals(get(second).headers().firstValue("ETag"))) {
+                return true;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return false;
+    }
+
+    private HttpResponse<String> get(String uri) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private void post(String uri, Map<String, String> form) throws IOException, InterruptedException {
+        String body = form.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(uri))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(302, response.statusCode(), "Gravação recusada: " + response.body());
+    }
+
+    private static Map<String, String> form(String title, String year) {
+        return Map.of("title", title, "author", "Autor do Cluster", "publicationYear", year, "genre", "Ficção");
+    }
+
+    private static int freeTcpPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static int freeUdpPort() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
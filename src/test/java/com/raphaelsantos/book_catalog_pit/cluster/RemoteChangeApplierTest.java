@@ -0,0 +1,75 @@
+package com.raphaelsantos.book_catalog_pit.cluster;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.BookChange;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.BookChangesRelayedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogReloadedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RemoteChangeApplierTest {
+
+    private final BookRepository repository = mock(BookRepository.class);
+    private final List<Object> published = new ArrayList<>();
+    private final RemoteChangeApplier applier =
+            new RemoteChangeApplier(repository, published::add, new ClusterNode("local"));
+
+    @Test
+    void onChangesRelayed_whenChangesAreLocal_shouldIgnoreThem() {
+        applier.onChangesRelayed(new BookChangesRelayedEvent(List.of(change(1, "UPDATED", 10L, "local"))));
+
+        assertTrue(published.isEmpty());
+        verify(repository, never()).findAllById(Set.of(10L));
+    }
+
+    @Test
+    void onChangesRelayed_shouldRepublishRemoteChangesWithCurrentBooks() {
+        Book book = bookWithId(10L);
+        when(repository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(book));
+
+        applier.onChangesRelayed(new BookChangesRelayedEvent(List.of(
+                change(1, "UPDATED", 10L, "other"),
+                change(2, "CREATED", 11L, "other"),
+                change(3, "DELETED", 11L, "other"))));
+
+        // O livro 11 já foi excluído: só a exclusão é aplicada
+        assertEquals(List.of(
+                BookChangedEvent.remote(BookChangedEvent.Type.UPDATED, 10L, book),
+                BookChangedEvent.remote(BookChangedEvent.Type.DELETED, 11L, null)), published);
+    }
+
+    @Test
+    void onChangesRelayed_whenCatalogWasReloaded_shouldRepublishReload() {
+        when(repository.count()).thenReturn(42L);
+
+        applier.onChangesRelayed(new BookChangesRelayedEvent(List.of(change(1, BookChange.RELOADED, null, "other"))));
+
+        assertEquals(List.of(new CatalogReloadedEvent(42, true)), published);
+    }
+
+    private static BookChange change(long offset, String type, Long bookId, String node) {
+        return new BookChange(offset, type, bookId, Instant.EPOCH, node);
+    }
+
+    private static Book bookWithId(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Livro " + id);
+        book.setAuthor("Autor");
+        book.setPublicationYear(2000);
+        return book;
+    }
+}
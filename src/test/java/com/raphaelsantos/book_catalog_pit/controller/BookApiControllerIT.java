@@ -0,0 +1,80 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookApiControllerIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    private Long firstId;
+    private Long secondId;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        firstId = repository.save(newBook("O Hobbit")).getId();
+        secondId = repository.save(newBook("O Silmarillion")).getId();
+    }
+
+    @Test
+    void list_shouldReturnPageWithCursor() throws Exception {
+        mockMvc.perform(get("/api/books").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", hasSize(1)))
+                .andExpect(jsonPath("$.books[0].title").value("O Hobbit"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void detail_whenNotModified_shouldReturn304() throws Exception {
+        String etag = mockMvc.perform(get("/api/books/{id}", firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("O Hobbit"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/books/{id}", firstId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void detail_whenNotExist_shouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/books/{id}", secondId + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batch_shouldReturnBooksInRequestedOrder() throws Exception {
+        mockMvc.perform(get("/api/books/batch").param("ids", secondId + "," + firstId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title").value("O Silmarillion"))
+                .andExpect(jsonPath("$[1].title").value("O Hobbit"));
+    }
+
+    private Book newBook(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("J.R.R. Tolkien");
+        book.setPublicationYear(1937);
+        return book;
+    }
+}
@@ -0,0 +1,118 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChange;
+import com.raphaelsantos.book_catalog_pit.service.BookChangeOutbox;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookChangeControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService service;
+
+    @Autowired
+    private BookChangeOutbox outbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void save_shouldRecordChangesInOutbox() {
+        long before = outbox.lastOffset();
+
+        Book saved = service.save(book("Memórias Póstumas de Brás Cubas"));
+        service.delete(saved.getId());
+
+        List<BookChange> changes = outbox.readAfter(before, 10);
+        assertEquals(List.of("CREATED", "DELETED"), changes.stream().map(BookChange::type).toList());
+        assertEquals(saved.getId(), changes.getFirst().bookId());
+        assertTrue(changes.getFirst().offset() < changes.getLast().offset());
+    }
+
+    @Test
+    void save_whenTransactionRollsBack_shouldNotRecordChange() {
+        long before = outbox.lastOffset();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.save(book("Quincas Borba"));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(outbox.readAfter(before, 10).isEmpty());
+    }
+
+    @Test
+    void changes_shouldStreamFromLastEventId() throws Exception {
+        long before = outbox.lastOffset();
+        Book saved = service.save(book("Dom Casmurro"));
+
+        MvcResult result = mockMvc.perform(get("/books/changes").header("Last-Event-ID", before))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = awaitContent(result, "event:CREATED");
+        assertTrue(body.contains("\"bookId\":" + saved.getId()));
+    }
+
+    @Test
+    void changes_whenOffsetWasPurged_shouldSendReset() throws Exception {
+        long before = outbox.lastOffset();
+        service.save(book("Helena"));
+        MvcResult first = mockMvc.perform(get("/books/changes").param("from", Long.toString(before)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(first, "event:CREATED");
+
+        outbox.purge(Instant.now().plusSeconds(60));
+
+        MvcResult result = mockMvc.perform(get("/books/changes").param("from", Long.toString(before)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitContent(result, "event:RESET");
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        String body = "";
+        while (System.nanoTime() < deadline) {
+            body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            if (body.contains(expected)) {
+                return body;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Evento " + expected + " não recebido: " + body);
+    }
+
+    private static Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Machado de Assis");
+        book.setPublicationYear(1881);
+        book.setGenre("Romance");
+        return book;
+    }
+}
@@ -1,7 +1,9 @@
 package com.raphaelsantos.book_catalog_pit.controller;
 
+import com.raphaelsantos.book_catalog_pit.metrics.QueryCounter;
 import com.raphaelsantos.book_catalog_pit.model.Book;
 import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +11,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 
-@SpringBootTest
+@SpringBootTest(properties = "catalog.query-guard.strict=true")
 @AutoConfigureMockMvc
 public class BookControllerIT {
     @Autowired
@@ -22,6 +27,9 @@ public class BookControllerIT {
     @Autowired
     private BookRepository repository;
 
+    @Autowired
+    private DuplicateIndex duplicates;
+
     @BeforeEach
     void setup() {
         repository.deleteAll();
@@ -43,6 +51,33 @@ public class BookControllerIT {
                 .andExpect(model().attributeExists("books"));
     }
 
+    @Test
+    void list_shouldLoadPageWithSingleQuery() throws Exception {
+        mockMvc.perform(get("/books"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, QueryCounter.queries());
+        assertEquals(0, QueryCounter.entities());
+    }
+
+    @Test
+    void list_whenFilteredByGenre_shouldReturnOnlyMatchingBooks() throws Exception {
+        mockMvc.perform(get("/books").param("genre", "Romance"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("books", empty()))
+                .andExpect(model().attributeExists("genreFacets", "decadeFacets"));
+
+        mockMvc.perform(get("/books").param("genre", "Fantasia").param("yearFrom", "1930").param("yearTo", "1939"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("books", hasSize(1)));
+    }
+
+    @Test
+    void list_whenCursorIsInvalid_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/books").param("cursor", "invalido"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void detail_shouldDisplayBookDetails() throws Exception {
         Long id = repository.findAll().getFirst().getId();
@@ -53,6 +88,34 @@ public class BookControllerIT {
                 .andExpect(model().attributeExists("book"));
     }
 
+    @Test
+    void detail_whenNotModified_shouldReturn304WithoutRendering() throws Exception {
+        Long id = repository.findAll().getFirst().getId();
+
+        String etag = mockMvc.perform(get("/books/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/books/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void update_whenVersionIsStale_shouldReturnToFormWithError() throws Exception {
+        Book book = repository.findAll().getFirst();
+
+        mockMvc.perform(post("/books/{id}", book.getId())
+                        .param("title", "Título Novo")
+                        .param("author", book.getAuthor())
+                        .param("publicationYear", "1937")
+                        .param("version", String.valueOf(book.getVersion() + 1)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/form"))
+                .andExpect(model().attributeHasErrors("book"));
+    }
+
     @Test
     void create_whenValidData_shouldRedirectToList() throws Exception {
         mockMvc.perform(post("/books")
@@ -65,6 +128,20 @@ public class BookControllerIT {
                 .andExpect(redirectedUrl("/books"));
     }
 
+    @Test
+    void create_whenSimilarBookExists_shouldWarnAboutDuplicate() throws Exception {
+        // O livro do setup é gravado direto no repositório, sem passar pelos eventos do serviço
+        duplicates.rebuild();
+
+        mockMvc.perform(post("/books")
+                        .param("title", "O hobbit.")
+                        .param("author", "J. R. R. Tolkien")
+                        .param("publicationYear", "1937")
+                        .param("genre", "Fantasia"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attributeExists("warning"));
+    }
+
     @Test
     void create_whenInvalidData_shouldReturnToForm() throws Exception {
         mockMvc.perform(post("/books")
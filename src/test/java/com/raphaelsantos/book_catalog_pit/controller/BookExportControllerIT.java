@@ -0,0 +1,60 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookExportControllerIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+
+        Book book = new Book();
+        book.setTitle("Dom Casmurro, edição comentada");
+        book.setAuthor("Machado de Assis");
+        book.setPublicationYear(1899);
+        book.setGenre("Romance");
+        repository.save(book);
+    }
+
+    @Test
+    void export_whenCsv_shouldWriteHeaderAndQuotedFields() throws Exception {
+        mockMvc.perform(get("/books/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(containsString("id,title,author,publicationYear,genre,synopsis\n")))
+                .andExpect(content().string(containsString(
+                        ",\"Dom Casmurro, edição comentada\",Machado de Assis,1899,Romance,\n")));
+    }
+
+    @Test
+    void export_whenJsonLines_shouldWriteOneObjectPerLine() throws Exception {
+        mockMvc.perform(get("/books/export").param("format", "jsonl"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"author\":\"Machado de Assis\"")));
+    }
+
+    @Test
+    void export_whenFormatUnknown_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
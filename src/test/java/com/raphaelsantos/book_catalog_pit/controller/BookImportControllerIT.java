@@ -0,0 +1,65 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookImportControllerIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void importCsv_shouldSaveValidRowsAndReportInvalidOnes() throws Exception {
+        String csv = """
+                title,author,publicationYear,genre
+                O Hobbit,J.R.R Tolkien,1937,Fantasia
+                "Dom Casmurro, edição comentada",Machado de Assis,1899,Romance
+                ,Autor sem título,2000,
+                Livro sem ano,Autor,abc,
+                """;
+
+        mockMvc.perform(post("/books/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[1].line").value(5));
+
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void importJsonLines_shouldSaveValidRowsAndReportInvalidOnes() throws Exception {
+        String jsonLines = """
+                {"title":"O Hobbit","author":"J.R.R Tolkien","publicationYear":1937}
+                {"title":"Sem autor","publicationYear":1937}
+                não é json
+                """;
+
+        mockMvc.perform(post("/books/import").contentType("application/x-ndjson").content(jsonLines))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(2));
+
+        assertEquals(1, repository.count());
+    }
+}
@@ -0,0 +1,56 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "catalog.snapshot.file=target/test-data/catalog.snapshot")
+@AutoConfigureMockMvc
+public class BookSnapshotControllerIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+
+        Book book = new Book();
+        book.setTitle("Dom Casmurro");
+        book.setAuthor("Machado de Assis");
+        book.setPublicationYear(1899);
+        book.setGenre("Romance");
+        repository.save(book);
+    }
+
+    @Test
+    void restore_shouldReplaceCatalogWithSavedSnapshot() throws Exception {
+        Long id = repository.findAll().getFirst().getId();
+
+        mockMvc.perform(post("/books/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(1));
+
+        repository.deleteAll();
+
+        mockMvc.perform(post("/books/snapshot/restore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(1));
+
+        Book restored = repository.findById(id).orElseThrow();
+        assertEquals("Dom Casmurro", restored.getTitle());
+        assertEquals("Machado de Assis", restored.getAuthor());
+    }
+}
@@ -0,0 +1,81 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "catalog.stream.page-size=2")
+@AutoConfigureMockMvc
+public class BookStreamControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    private Long firstId;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        firstId = repository.save(newBook("O Hobbit")).getId();
+        repository.save(newBook("O Silmarillion"));
+        repository.save(newBook("Contos Inacabados"));
+    }
+
+    @Test
+    void list_whenNdjsonIsAccepted_shouldStreamOneBookPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stream/books").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(10_000);
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).strip().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"O Hobbit\""));
+        assertTrue(lines[2].contains("\"title\":\"Contos Inacabados\""));
+    }
+
+    @Test
+    void detail_shouldReturnBook() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stream/books/{id}", firstId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("O Hobbit"));
+    }
+
+    @Test
+    void search_whenTermIsTooShort_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/stream/books/search").param("q", "a").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Book newBook(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("J.R.R. Tolkien");
+        book.setPublicationYear(1937);
+        return book;
+    }
+}
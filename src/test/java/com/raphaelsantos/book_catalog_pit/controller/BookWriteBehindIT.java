@@ -0,0 +1,74 @@
+package com.raphaelsantos.book_catalog_pit.controller;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "catalog.write-behind.enabled=true",
+        "catalog.write-behind.flush-interval=500ms",
+        "catalog.write-behind.read-timeout=10s"
+})
+@AutoConfigureMockMvc
+public class BookWriteBehindIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    private Long id;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+
+        Book book = new Book();
+        book.setTitle("O Hobbit");
+        book.setAuthor("J.R.R Tolkien");
+        book.setPublicationYear(1937);
+        book.setGenre("Fantasia");
+        id = repository.save(book).getId();
+    }
+
+    @Test
+    void create_shouldBeVisibleToSameSessionOnNextRead() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+
+        mockMvc.perform(post("/books").session(session)
+                        .param("title", "Novo Livro")
+                        .param("author", "Novo Autor")
+                        .param("publicationYear", "2024")
+                        .param("genre", "Fantasia"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("msg", "Livro cadastrado com sucesso!"));
+
+        mockMvc.perform(get("/books").session(session))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("books", hasSize(2)));
+    }
+
+    @Test
+    void update_whenVersionIsOutdated_shouldReturnToForm() throws Exception {
+        mockMvc.perform(post("/books/{id}", id)
+                        .param("title", "O Hobbit")
+                        .param("author", "J.R.R Tolkien")
+                        .param("publicationYear", "1937")
+                        .param("genre", "Fantasia")
+                        .param("version", "99"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/form"));
+    }
+}
@@ -1,9 +1,11 @@
 package com.raphaelsantos.book_catalog_pit.repository;
 
 import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 
@@ -23,10 +25,31 @@ public class BookRepositoryTest {
         b1.setPublicationYear(2024);
         repository.save(b1);
 
-        List<Book> result = repository
+        List<BookSummary> result = repository
                 .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("spring", "spring");
 
         assertEquals(1, result.size());
         assertEquals("Spring Boot in Action", result.getFirst().getTitle());
     }
+
+    @Test
+    void findByIdGreaterThan_shouldReturnNextSummariesInIdOrder() {
+        Book b1 = repository.save(newBook("Livro A"));
+        Book b2 = repository.save(newBook("Livro B"));
+        repository.save(newBook("Livro C"));
+
+        List<BookSummary> result = repository.findByIdGreaterThanOrderByIdAsc(b1.getId(), Limit.of(1));
+
+        assertEquals(1, result.size());
+        assertEquals(b2.getId(), result.getFirst().getId());
+        assertEquals("Livro B", result.getFirst().getTitle());
+    }
+
+    private Book newBook(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Autor");
+        book.setPublicationYear(2024);
+        return book;
+    }
 }
@@ -0,0 +1,110 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.BookFilter;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.raphaelsantos.book_catalog_pit.service.CatalogSources.book;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookFacetsTest {
+
+    private BookFacets facets;
+
+    @BeforeEach
+    void setup() {
+        facets = new BookFacets(CatalogSources.of(List.of(
+                book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"),
+                book(2L, "Quincas Borba", "Machado de Assis", 1891, "Romance"),
+                book(3L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia"))));
+        facets.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldCountBooksByGenreAndDecade() {
+        assertEquals(List.of(
+                new BookFacets.GenreFacet("Romance", 2),
+                new BookFacets.GenreFacet("Fantasia", 1)), facets.genres(10));
+        assertEquals(List.of(
+                new BookFacets.DecadeFacet(1890, 1899, 2),
+                new BookFacets.DecadeFacet(1930, 1939, 1)), facets.decades());
+    }
+
+    @Test
+    void onBookChanged_whenUpdated_shouldMoveCountToNewFacets() {
+        Book book = new Book();
+        book.setId(2L);
+        book.setGenre("Fantasia");
+        book.setPublicationYear(1937);
+
+        facets.onBookChanged(BookChangedEvent.updated(book));
+
+        assertEquals(List.of(
+                new BookFacets.GenreFacet("Fantasia", 2),
+                new BookFacets.GenreFacet("Romance", 1)), facets.genres(10));
+        assertEquals(List.of(
+                new BookFacets.DecadeFacet(1890, 1899, 1),
+                new BookFacets.DecadeFacet(1930, 1939, 2)), facets.decades());
+    }
+
+    @Test
+    void onBookChanged_whenDeleted_shouldDropEmptyFacets() {
+        facets.onBookChanged(BookChangedEvent.deleted(3L));
+
+        assertEquals(List.of(new BookFacets.GenreFacet("Romance", 2)), facets.genres(10));
+        assertEquals(List.of(new BookFacets.DecadeFacet(1890, 1899, 2)), facets.decades());
+    }
+
+    @Test
+    void facets_shouldApplyTheOtherFacetsFilter() {
+        BookFacets.Facets shown = facets.facets(new BookFilter("Romance", 1930, 1939), 10);
+
+        // Gêneros dos livros da década filtrada; décadas dos livros do gênero filtrado
+        assertEquals(List.of(new BookFacets.GenreFacet("Fantasia", 1)), shown.genres());
+        assertEquals(List.of(new BookFacets.DecadeFacet(1890, 1899, 2)), shown.decades());
+    }
+
+    @Test
+    void of_shouldCountOnlyTheGivenBooks() {
+        List<BookSummary> found = List.of(
+                new BookSummary(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"),
+                new BookSummary(3L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia"));
+
+        BookFacets.Facets shown = BookFacets.of(found, new BookFilter(null, 1890, 1899), 10);
+
+        assertEquals(List.of(new BookFacets.GenreFacet("Romance", 1)), shown.genres());
+        assertEquals(List.of(
+                new BookFacets.DecadeFacet(1890, 1899, 1),
+                new BookFacets.DecadeFacet(1930, 1939, 1)), shown.decades());
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        BookFacets loading = new BookFacets(source);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia")));
+            loading.onBookChanged(BookChangedEvent.deleted(1L));
+            return 1L;
+        });
+
+        loading.rebuild();
+
+        assertEquals(List.of(new BookFacets.GenreFacet("Fantasia", 1)), loading.genres(10));
+        assertEquals(List.of(new BookFacets.DecadeFacet(1930, 1939, 1)), loading.decades());
+    }
+}
@@ -0,0 +1,111 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new BookSearchIndex(CatalogSources.of(List.of(
+                book(1L, "O Hobbit", "J.R.R. Tolkien", "Fantasia"),
+                book(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", "Romance"),
+                book(3L, "Dom Casmurro", "Machado de Assis", "Ficção"))));
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAndAccents() {
+        assertEquals(List.of(2L), index.search("MEMORIAS bras", 10));
+        assertEquals(List.of(3L), index.search("ficcao", 10));
+    }
+
+    @Test
+    void search_shouldMatchTermPrefixes() {
+        assertEquals(List.of(1L), index.search("hob", 10));
+    }
+
+    @Test
+    void search_shouldRequireAllTerms() {
+        assertEquals(List.of(3L), index.search("machado casmurro", 10));
+        assertTrue(index.search("machado hobbit", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldReturnOnlyTheMostRelevantUpToLimit() {
+        // "Machado" no título pesa mais que no autor; entre os autores, vence o livro mais curto
+        index.index(book(4L, "Machado", "Anônimo", "Ensaio"));
+
+        assertEquals(List.of(4L, 3L, 2L), index.search("machado", 10));
+        assertEquals(List.of(4L, 3L), index.search("machado", 2));
+    }
+
+    @Test
+    void remove_shouldDropBookFromResults() {
+        index.remove(3L);
+
+        assertEquals(List.of(2L), index.search("machado", 10));
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfBook() {
+        index.index(book(1L, "O Silmarillion", "J.R.R. Tolkien", "Fantasia"));
+
+        assertTrue(index.search("hobbit", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("silmarillion", 10));
+    }
+
+    @Test
+    void index_whenBooksAreReindexedManyTimes_shouldKeepOnlyLatestVersions() {
+        for (int i = 0; i < 5_000; i++) {
+            index.index(book(1L, "O Hobbit " + i, "J.R.R. Tolkien", "Fantasia"));
+        }
+
+        assertEquals(List.of(1L), index.search("hobbit 4999", 10));
+        assertTrue(index.search("hobbit 4998", 10).isEmpty());
+        assertEquals(List.of(3L), index.search("machado casmurro", 10));
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        BookSearchIndex loading = new BookSearchIndex(source);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "Dom Casmurro", "Machado de Assis", "Romance"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "O Hobbit", "J.R.R. Tolkien", "Fantasia")));
+            loading.onBookChanged(BookChangedEvent.deleted(1L));
+            return 1L;
+        });
+
+        loading.rebuild();
+
+        assertEquals(List.of(2L), loading.search("hobbit", 10));
+        assertTrue(loading.search("casmurro", 10).isEmpty());
+    }
+
+    private Book book(Long id, String title, String author, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setGenre(genre);
+        return book;
+    }
+}
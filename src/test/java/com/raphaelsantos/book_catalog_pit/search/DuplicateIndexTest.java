@@ -0,0 +1,93 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.raphaelsantos.book_catalog_pit.service.CatalogSources.book;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DuplicateIndexTest {
+
+    private DuplicateIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new DuplicateIndex(CatalogSources.of(List.of(
+                book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"),
+                book(2L, "Quincas Borba", "Machado de Assis", 1891, "Romance"),
+                book(3L, "O Senhor dos Anéis", "J.R.R. Tolkien", 1954, "Fantasia"))), 0.8);
+        index.rebuild();
+    }
+
+    @Test
+    void findDuplicates_shouldIgnoreCaseAccentsAndPunctuation() {
+        List<DuplicateCandidate> found = index.findDuplicates(null, "o senhor dos aneis", "J. R. R. Tolkien");
+
+        assertEquals(1, found.size());
+        assertEquals(3L, found.getFirst().id());
+        assertEquals(1.0, found.getFirst().similarity());
+    }
+
+    @Test
+    void findDuplicates_shouldFindTitlesWithTypos() {
+        List<DuplicateCandidate> found = index.findDuplicates(null, "Dom Casmuro", "Machado de Assis");
+
+        assertEquals(List.of(1L), found.stream().map(DuplicateCandidate::id).toList());
+    }
+
+    @Test
+    void findDuplicates_shouldNotFlagOtherBooksOfSameAuthor() {
+        assertTrue(index.findDuplicates(null, "Memórias Póstumas de Brás Cubas", "Machado de Assis").isEmpty());
+    }
+
+    @Test
+    void findDuplicates_shouldIgnoreBookBeingEdited() {
+        assertTrue(index.findDuplicates(1L, "Dom Casmurro", "Machado de Assis").isEmpty());
+    }
+
+    @Test
+    void onBookChanged_shouldUpdateIndexIncrementally() {
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Helena");
+        book.setAuthor("Machado de Assis");
+        index.onBookChanged(BookChangedEvent.updated(book));
+
+        assertTrue(index.findDuplicates(null, "Dom Casmurro", "Machado de Assis").isEmpty());
+        assertEquals(1L, index.findDuplicates(null, "Helena", "Machado de Assis").getFirst().id());
+
+        index.onBookChanged(BookChangedEvent.deleted(1L));
+
+        assertTrue(index.findDuplicates(null, "Helena", "Machado de Assis").isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        DuplicateIndex loading = new DuplicateIndex(source, 0.8);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia")));
+            loading.onBookChanged(BookChangedEvent.deleted(1L));
+            return 1L;
+        });
+
+        loading.rebuild();
+
+        assertEquals(2L, loading.findDuplicates(null, "O Hobbit", "J.R.R. Tolkien").getFirst().id());
+        assertTrue(loading.findDuplicates(null, "Dom Casmurro", "Machado de Assis").isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DuplicateScannerTest {
+
+    @Test
+    void findClusters_shouldGroupSimilarBooksTransitively() {
+        List<BookSummary> books = List.of(
+                new BookSummary(10L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"),
+                new BookSummary(11L, "Quincas Borba", "Machado de Assis", 1891, "Romance"),
+                new BookSummary(12L, "Dom Casmuro", "Machado de Assis", 1899, "Romance"),
+                new BookSummary(13L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia"),
+                new BookSummary(14L, "DOM CASMURRO.", "Machado de Assis", 1899, "Romance"),
+                new BookSummary(15L, "o hobbit", "J. R. R. Tolkien", 1937, "Fantasia"));
+
+        List<DuplicateCluster> clusters = DuplicateScanner.findClusters(books, 0.8);
+
+        assertEquals(2, clusters.size());
+        assertEquals(List.of(10L, 12L, 14L), clusters.get(0).ids());
+        assertEquals("Dom Casmurro", clusters.get(0).title());
+        assertEquals(List.of(13L, 15L), clusters.get(1).ids());
+    }
+
+    @Test
+    void findClusters_shouldFindCopiesAmongManyBooksSharingCommonWords() {
+        // Títulos montados com poucas palavras formam grupos grandes com a mesma chave em várias faixas
+        String[] words = {"sol", "lua", "mar", "rio", "casa", "noite"};
+        List<BookSummary> books = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            String title = words[(int) (id % 6)] + " " + words[(int) (id / 6 % 6)] + " " + id;
+            books.add(new BookSummary(id, title, "Autor " + id % 50, 2000, "Romance"));
+        }
+        books.add(copy(5000L, books.get(0), ""));
+        books.add(copy(5001L, books.get(1000), "."));
+
+        List<DuplicateCluster> clusters = DuplicateScanner.findClusters(books, 0.8);
+
+        // Outros livros do mesmo autor com título parecido podem cair no mesmo grupo
+        assertTrue(clusters.stream().anyMatch(cluster -> cluster.ids().containsAll(List.of(0L, 5000L))));
+        assertTrue(clusters.stream().anyMatch(cluster -> cluster.ids().containsAll(List.of(1000L, 5001L))));
+    }
+
+    private BookSummary copy(Long id, BookSummary original, String suffix) {
+        return new BookSummary(id, original.getTitle() + suffix, original.getAuthor(), 2000, "Romance");
+    }
+
+    @Test
+    void findClusters_whenCatalogIsEmpty_shouldReturnNoClusters() {
+        assertTrue(DuplicateScanner.findClusters(List.of(), 0.8).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubstringScannerTest {
+
+    private final List<Book> books = new ArrayList<>(List.of(
+            book(3L, "Dom Casmurro", "Machado de Assis"),
+            book(1L, "Memórias Póstumas de Brás Cubas", "Machado de Assis"),
+            book(2L, "O Hobbit", "J.R.R. Tolkien")));
+    private SubstringScanner scanner;
+
+    @BeforeEach
+    void setup() {
+        scanner = new SubstringScanner(CatalogSources.of(books), true);
+        scanner.rebuild();
+    }
+
+    @Test
+    void rebuild_whenDisabled_shouldNotBeReady() {
+        SubstringScanner disabled = new SubstringScanner(CatalogSources.of(books), false);
+        disabled.rebuild();
+
+        assertFalse(disabled.isReady());
+    }
+
+    @Test
+    void search_shouldMatchInsideWordsIgnoringCaseAndAccents() {
+        assertTrue(scanner.isReady());
+        assertEquals(List.of(1L, 3L), scanner.search("ACHA", 10));
+        assertEquals(List.of(1L), scanner.search("bras cu", 10));
+        assertEquals(List.of(2L), scanner.search("tolk", 10));
+        assertEquals(List.of(), scanner.search("java", 10));
+    }
+
+    @Test
+    void search_shouldNotMatchAcrossTitleAndAuthor() {
+        assertEquals(List.of(), scanner.search("casmurromachado", 10));
+        assertEquals(List.of(), scanner.search("hobbitj", 10));
+    }
+
+    @Test
+    void search_shouldReturnLowestIdsUpToLimit() {
+        assertEquals(List.of(1L), scanner.search("machado", 1));
+    }
+
+    @Test
+    void onBookChanged_shouldReplaceAndRemoveBooks() {
+        scanner.onBookChanged(BookChangedEvent.updated(book(2L, "O Senhor dos Anéis", "J.R.R. Tolkien")));
+        scanner.onBookChanged(BookChangedEvent.deleted(3L));
+
+        assertEquals(List.of(), scanner.search("hobbit", 10));
+        assertEquals(List.of(2L), scanner.search("aneis", 10));
+        assertEquals(List.of(1L), scanner.search("machado", 10));
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        SubstringScanner loading = new SubstringScanner(source, true);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "Dom Casmurro", "Machado de Assis"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "O Hobbit", "J.R.R. Tolkien")));
+            loading.onBookChanged(BookChangedEvent.deleted(1L));
+            return 1L;
+        });
+
+        loading.rebuild();
+
+        assertEquals(List.of(2L), loading.search("hobbit", 10));
+        assertEquals(List.of(), loading.search("casmurro", 10));
+    }
+
+    @Test
+    void search_shouldScanLargeCatalogsInParallel() {
+        books.clear();
+        LongStream.rangeClosed(1, 200_000).forEach(id ->
+                books.add(book(id, "Livro número " + id, id % 1000 == 0 ? "Autora Rara" : "Autor Comum")));
+        scanner.rebuild();
+
+        List<Long> found = scanner.search("rara", 500);
+
+        assertEquals(200, found.size());
+        assertEquals(1000L, found.getFirst());
+        assertEquals(200_000L, found.getLast());
+        assertEquals(List.of(123_456L), scanner.search("numero 123456", 10));
+    }
+
+    private static Book book(Long id, String title, String author) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
@@ -0,0 +1,111 @@
+package com.raphaelsantos.book_catalog_pit.search;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.raphaelsantos.book_catalog_pit.service.CatalogSources.book;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new SuggestionIndex(CatalogSources.of(List.of(
+                book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"),
+                book(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", 1881, "Romance"),
+                book(3L, "O Senhor dos Anéis", "J.R.R. Tolkien", 1954, "Fantasia"))));
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_shouldMatchAnyWordIgnoringCaseAndAccents() {
+        assertEquals(List.of("O Senhor dos Anéis"), index.suggest("ANEIS", 10));
+        assertEquals(List.of("O Senhor dos Anéis"), index.suggest("senh", 10));
+        assertEquals(List.of("Memórias Póstumas de Brás Cubas"), index.suggest("bras c", 10));
+    }
+
+    @Test
+    void suggest_shouldRankByNumberOfBooksSharingTheSuggestion() {
+        assertEquals(List.of("Machado de Assis", "Memórias Póstumas de Brás Cubas"), index.suggest("m", 10));
+        assertEquals(List.of("Machado de Assis"), index.suggest("m", 1));
+    }
+
+    @Test
+    void suggest_whenPrefixIsUnknownOrBlank_shouldReturnEmpty() {
+        assertTrue(index.suggest("xyz", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_shouldUpdateSuggestionsIncrementally() {
+        // Consulta curta antes da alteração, para garantir que as listas dos nós são atualizadas
+        assertEquals(List.of("Machado de Assis", "Memórias Póstumas de Brás Cubas"), index.suggest("m", 10));
+
+        Book book = new Book();
+        book.setId(2L);
+        book.setTitle("Quincas Borba");
+        book.setAuthor("Machado de Assis");
+        index.onBookChanged(BookChangedEvent.updated(book));
+
+        assertEquals(List.of("Machado de Assis"), index.suggest("m", 10));
+        assertEquals(List.of("Quincas Borba"), index.suggest("qu", 10));
+
+        index.onBookChanged(BookChangedEvent.deleted(3L));
+
+        assertTrue(index.suggest("tolkien", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_whenPrefixIsLongerThanTree_shouldMatchWholePrefix() {
+        index.onBookChanged(BookChangedEvent.created(book(4L, "Aventuras Extraordinárias de Tom Sawyer", "Mark Twain", 1876, "Aventura")));
+        index.onBookChanged(BookChangedEvent.created(book(5L, "Aventuras Extraordinárias de Huck", "Mark Twain", 1884, "Aventura")));
+
+        assertEquals(List.of("Aventuras Extraordinárias de Tom Sawyer"),
+                index.suggest("aventuras extraordinarias de t", 10));
+    }
+
+    @Test
+    void onBookChanged_whenTextIsNoLongerUsed_shouldStopSuggestingIt() {
+        index.onBookChanged(BookChangedEvent.deleted(1L));
+        index.onBookChanged(BookChangedEvent.deleted(2L));
+
+        assertTrue(index.suggest("mach", 10).isEmpty());
+        assertTrue(index.suggest("dom", 10).isEmpty());
+
+        // O texto volta a ser sugerido quando outro livro passa a usá-lo
+        index.onBookChanged(BookChangedEvent.created(book(4L, "Helena", "Machado de Assis", 1876, "Romance")));
+        assertEquals(List.of("Machado de Assis"), index.suggest("mach", 10));
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        SuggestionIndex loading = new SuggestionIndex(source);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "Dom Casmurro", "Machado de Assis", 1899, "Romance"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia")));
+            loading.onBookChanged(BookChangedEvent.deleted(1L));
+            return 1L;
+        });
+
+        loading.rebuild();
+
+        assertEquals(List.of("O Hobbit"), loading.suggest("hob", 10));
+        assertTrue(loading.suggest("casm", 10).isEmpty());
+    }
+}
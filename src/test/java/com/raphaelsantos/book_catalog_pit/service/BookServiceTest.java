@@ -1,18 +1,37 @@
 package com.raphaelsantos.book_catalog_pit.service;
 
 import com.raphaelsantos.book_catalog_pit.exception.BookNotFoundException;
+import com.raphaelsantos.book_catalog_pit.exception.BookVersionConflictException;
+import com.raphaelsantos.book_catalog_pit.exception.InvalidCursorException;
+import com.raphaelsantos.book_catalog_pit.exception.SearchTermTooShortException;
 import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
 import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.search.BookSearchIndex;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateCandidate;
+import com.raphaelsantos.book_catalog_pit.search.DuplicateIndex;
+import com.raphaelsantos.book_catalog_pit.search.SubstringScanner;
+import com.raphaelsantos.book_catalog_pit.store.OffHeapBookStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -22,48 +41,193 @@ public class BookServiceTest {
     @Mock
     private BookRepository repository;
 
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private SubstringScanner scanner;
+
+    @Mock
+    private OffHeapBookStore store;
+
+    @Mock
+    private DuplicateIndex duplicates;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), true, Duration.ZERO);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private BookService service;
 
     @Test
     void listAll_shouldReturnAllBooks() {
-        Book book = new Book();
-        book.setTitle("O Hobbit");
+        BookSummary book = new BookSummary(1L, "O Hobbit", "J.R.R. Tolkien", 1937, "Fantasia");
 
-        when(repository.findAll()).thenReturn(List.of(book));
+        when(repository.findSummariesBy()).thenReturn(List.of(book));
 
-        List<Book> result = service.listAll();
+        List<BookSummary> result = service.listAll();
 
         assertEquals(1, result.size());
         assertEquals("O Hobbit", result.getFirst().getTitle());
-        verify(repository).findAll();
+        verify(repository).findSummariesBy();
     }
 
     @Test
-    void findByTerm_whenTermIsEmpty_shouldReturnAll() {
-        Book book = new Book();
-        when(repository.findAll()).thenReturn(List.of(book));
+    void listPage_whenNoCursor_shouldReturnFirstPageWithNextCursor() {
+        when(repository.findAllByOrderByIdAsc(Limit.of(3)))
+                .thenReturn(List.of(summaryWithId(1L), summaryWithId(2L), summaryWithId(3L)));
 
-        List<Book> result = service.findByTerm(null);
+        BookPage page = service.listPage(null, 2);
 
-        assertEquals(1, result.size());
-        verify(repository).findAll();
+        assertEquals(2, page.books().size());
+        assertEquals(2L, page.books().getLast().getId());
+        assertEquals(BookCursor.after(2L).encode(), page.nextCursor());
+        assertNull(page.prevCursor());
+    }
+
+    @Test
+    void listPage_whenCursorIsBackward_shouldReturnPreviousPageInAscendingOrder() {
+        when(repository.findByIdLessThanOrderByIdDesc(5L, Limit.of(3)))
+                .thenReturn(List.of(summaryWithId(4L), summaryWithId(3L), summaryWithId(2L)));
+
+        BookPage page = service.listPage(BookCursor.before(5L).encode(), 2);
+
+        assertEquals(3L, page.books().getFirst().getId());
+        assertEquals(4L, page.books().getLast().getId());
+        assertEquals(BookCursor.after(4L).encode(), page.nextCursor());
+        assertNotNull(page.prevCursor());
+    }
+
+    @Test
+    void listPage_whenCursorIsInvalid_shouldThrowException() {
+        assertThrows(InvalidCursorException.class, () -> service.listPage("???", 2));
+    }
+
+    @Test
+    void findByTerm_whenTermIsBlank_shouldReturnFirstBooksUpToLimit() {
+        when(repository.findAllByOrderByIdAsc(Limit.of(BookService.MAX_RESULTS + 1)))
+                .thenReturn(LongStream.rangeClosed(1, BookService.MAX_RESULTS + 1).boxed().map(this::summaryWithId).toList());
+
+        List<BookSummary> result = service.findByTerm(" ");
+
+        assertEquals(BookService.MAX_RESULTS, result.size());
+        verify(repository, never()).findSummariesBy();
         verify(repository, never())
-                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(any(), any());
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    void findDuplicates_shouldIgnoreBookBeingEdited() {
+        DuplicateCandidate candidate = new DuplicateCandidate(2L, "O Hobbit", "J.R.R. Tolkien", 0.9);
+        when(duplicates.findDuplicates(1L, "O Hobit", "Tolkien")).thenReturn(List.of(candidate));
+
+        assertEquals(List.of(candidate), service.findDuplicates(1L, "O Hobit", "Tolkien"));
+    }
+
+    @Test
+    void findByTerm_shouldReturnUnmodifiableList() {
+        when(repository
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("java", "java", Limit.of(BookService.MAX_RESULTS)))
+                .thenReturn(List.of(summaryWithId(1L)));
+
+        List<BookSummary> result = service.findByTerm("java");
+
+        assertThrows(UnsupportedOperationException.class, () -> result.add(summaryWithId(2L)));
     }
 
     @Test
     void findByTerm_whenTermFilled_shouldSearchByTitleOrAuthor() {
-        Book book = new Book();
         when(repository
-                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("java", "java"))
-                .thenReturn(List.of(book));
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("java", "java", Limit.of(BookService.MAX_RESULTS)))
+                .thenReturn(List.of(summaryWithId(1L)));
 
-        List<Book> result = service.findByTerm("java");
+        List<BookSummary> result = service.findByTerm("java");
 
         assertEquals(1, result.size());
         verify(repository)
-                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("java", "java");
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase("java", "java", Limit.of(BookService.MAX_RESULTS));
+    }
+
+    @Test
+    void findByTerm_whenScannerReady_shouldNotQueryByLike() {
+        when(scanner.isReady()).thenReturn(true);
+        when(scanner.search("java", BookService.MAX_RESULTS)).thenReturn(List.of(1L, 2L));
+        when(repository.findSummariesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(summaryWithId(2L), summaryWithId(1L)));
+
+        List<BookSummary> result = service.findByTerm("java");
+
+        assertEquals(List.of(1L, 2L), result.stream().map(BookSummary::getId).toList());
+        verify(repository, never())
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    void findByTerm_whenIndexFindsNothing_shouldSearchTermInsideWords() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("acha", BookService.MAX_RESULTS)).thenReturn(List.of());
+        when(scanner.isReady()).thenReturn(true);
+        when(scanner.search("acha", BookService.MAX_RESULTS)).thenReturn(List.of(3L));
+        when(repository.findSummariesByIdIn(List.of(3L))).thenReturn(List.of(summaryWithId(3L)));
+
+        List<BookSummary> result = service.findByTerm("acha");
+
+        assertEquals(List.of(3L), result.stream().map(BookSummary::getId).toList());
+    }
+
+    @Test
+    void findByTerm_whenIndexReady_shouldReturnBooksInRelevanceOrder() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("java", BookService.MAX_RESULTS)).thenReturn(List.of(2L, 1L));
+        when(repository.findSummariesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(summaryWithId(1L), summaryWithId(2L)));
+
+        List<BookSummary> result = service.findByTerm("java");
+
+        assertEquals(2L, result.getFirst().getId());
+        assertEquals(1L, result.getLast().getId());
+        verify(repository, never())
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    void findByTerm_shouldRecordResultSize() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("java", BookService.MAX_RESULTS)).thenReturn(List.of(2L, 1L));
+        when(repository.findSummariesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(summaryWithId(1L), summaryWithId(2L)));
+
+        service.findByTerm("java");
+
+        DistributionSummary results = meterRegistry.get("catalog.results").tag("method", "findByTerm").summary();
+        assertEquals(1, results.count());
+        assertEquals(2.0, results.totalAmount());
+    }
+
+    @Test
+    void findByTerm_whenTermIsTooShort_shouldRejectWithoutSearching() {
+        assertThrows(SearchTermTooShortException.class, () -> service.findByTerm(" a "));
+
+        verifyNoInteractions(searchIndex);
+        verify(repository, never())
+                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    void findByTerm_whenIndexFindsTooManyBooks_shouldLoadOnlyTheMostRelevant() {
+        List<Long> ids = LongStream.rangeClosed(1, BookService.MAX_RESULTS + 100).boxed().toList();
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("java", BookService.MAX_RESULTS)).thenReturn(ids);
+
+        service.findByTerm("java");
+
+        verify(repository).findSummariesByIdIn(ids.subList(0, BookService.MAX_RESULTS));
     }
 
     @Test
@@ -87,6 +251,26 @@ public class BookServiceTest {
         verify(repository).findById(99L);
     }
 
+    @Test
+    void findById_whenStoreReady_shouldNotQueryRepository() {
+        Book book = new Book();
+        book.setId(1L);
+
+        when(store.isReady()).thenReturn(true);
+        when(store.findBook(1L)).thenReturn(book);
+
+        assertEquals(book, service.findById(1L));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findById_whenStoreReadyAndNotExist_shouldThrowException() {
+        when(store.isReady()).thenReturn(true);
+
+        assertThrows(BookNotFoundException.class, () -> service.findById(99L));
+        verifyNoInteractions(repository);
+    }
+
     @Test
     void save_shouldSaveBook() {
         Book book = new Book();
@@ -98,6 +282,7 @@ public class BookServiceTest {
 
         assertEquals("Novo Livro", result.getTitle());
         verify(repository).save(book);
+        verify(events).publishEvent(BookChangedEvent.created(book));
     }
 
     @Test
@@ -128,6 +313,22 @@ public class BookServiceTest {
         verify(repository).save(original);
     }
 
+    @Test
+    void update_whenVersionIsStale_shouldThrowConflict() {
+        Book original = new Book();
+        original.setId(1L);
+        original.setVersion(3L);
+
+        Book data = new Book();
+        data.setTitle("Livro Novo");
+        data.setVersion(2L);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(original));
+
+        assertThrows(BookVersionConflictException.class, () -> service.update(1L, data));
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void delete_whenExist_shouldDelete() {
         when(repository.existsById(1L)).thenReturn(true);
@@ -136,6 +337,7 @@ public class BookServiceTest {
 
         verify(repository).existsById(1L);
         verify(repository).deleteById(1L);
+        verify(events).publishEvent(BookChangedEvent.deleted(1L));
     }
 
     @Test
@@ -146,4 +348,8 @@ public class BookServiceTest {
         verify(repository).existsById(1L);
         verify(repository, never()).deleteById(anyLong());
     }
+
+    private BookSummary summaryWithId(Long id) {
+        return new BookSummary(id, "Livro " + id, "Autor", 2024, null);
+    }
 }
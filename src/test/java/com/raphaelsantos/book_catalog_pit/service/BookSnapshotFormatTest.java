@@ -0,0 +1,99 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.InvalidSnapshotException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookSnapshotFormatTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void read_shouldReturnBooksWrittenInTheSameOrder() throws Exception {
+        Path file = dir.resolve("catalog.snapshot");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            BookSnapshotWriter writer = new BookSnapshotWriter(out);
+            writer.write(book(1L, "Dom Casmurro", "Machado de Assis", "Romance"));
+            writer.write(book(2L, "Quincas Borba", "Machado de Assis", null));
+            assertEquals(2, writer.finish());
+        }
+
+        List<Book> books = new ArrayList<>();
+        assertEquals(2, BookSnapshotReader.read(file, books::add));
+
+        assertEquals("Dom Casmurro", books.get(0).getTitle());
+        assertEquals("Romance", books.get(0).getGenre());
+        assertEquals(Instant.parse("2024-05-01T10:15:30.123456Z"), books.get(0).getUpdatedAt());
+        assertEquals(2L, books.get(1).getId());
+        assertEquals("Machado de Assis", books.get(1).getAuthor());
+        assertNull(books.get(1).getGenre());
+        assertEquals(3L, books.get(1).getVersion());
+    }
+
+    @Test
+    void summary_shouldReturnCountMaxIdAndLastUpdate() throws Exception {
+        Path file = dir.resolve("catalog.snapshot");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            BookSnapshotWriter writer = new BookSnapshotWriter(out);
+            writer.write(book(7L, "Dom Casmurro", "Machado de Assis", "Romance"));
+            Book older = book(2L, "Quincas Borba", "Machado de Assis", null);
+            older.setUpdatedAt(Instant.parse("2020-01-01T00:00:00Z"));
+            writer.write(older);
+            writer.finish();
+        }
+
+        assertEquals(new BookSnapshotReader.Summary(2, 7L, Instant.parse("2024-05-01T10:15:30.123456Z")),
+                BookSnapshotReader.summary(file));
+    }
+
+    @Test
+    void read_whenFileIsTruncated_shouldThrowException() throws Exception {
+        Path file = dir.resolve("catalog.snapshot");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            BookSnapshotWriter writer = new BookSnapshotWriter(out);
+            writer.write(book(1L, "Dom Casmurro", "Machado de Assis", "Romance"));
+            writer.finish();
+        }
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+        assertThrows(InvalidSnapshotException.class, () -> BookSnapshotReader.read(file, book -> {
+        }));
+    }
+
+    @Test
+    void read_whenHeaderIsUnknown_shouldThrowException() throws Exception {
+        Path file = dir.resolve("catalog.csv");
+        Files.writeString(file, "title,author\n");
+
+        assertThrows(InvalidSnapshotException.class, () -> BookSnapshotReader.read(file, book -> {
+        }));
+    }
+
+    private Book book(Long id, String title, String author, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setGenre(genre);
+        book.setPublicationYear(1899);
+        book.setSynopsis("lorem ipsum...");
+        book.setVersion(3L);
+        book.setUpdatedAt(Instant.parse("2024-05-01T10:15:30.123456Z"));
+        return book;
+    }
+}
@@ -0,0 +1,44 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookSnapshotLoaderTest {
+
+    private final BookSnapshotService snapshots = mock(BookSnapshotService.class);
+    private final BookRepository repository = mock(BookRepository.class);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void run_whenDatabaseIsEmpty_shouldRestoreWithoutReloadEvent() throws Exception {
+        Path file = Files.createFile(dir.resolve("catalog.snapshot"));
+        when(repository.count()).thenReturn(0L);
+
+        new BookSnapshotLoader(snapshots, repository, file).run(null);
+
+        // As estruturas em memória são montadas em seguida, no ApplicationReadyEvent
+        verify(snapshots).restoreOnStartup();
+        verify(snapshots, never()).restore();
+    }
+
+    @Test
+    void run_whenDatabaseHasBooks_shouldKeepIt() throws Exception {
+        Path file = Files.createFile(dir.resolve("catalog.snapshot"));
+        when(repository.count()).thenReturn(3L);
+
+        new BookSnapshotLoader(snapshots, repository, file).run(null);
+
+        verify(snapshots, never()).restoreOnStartup();
+    }
+}
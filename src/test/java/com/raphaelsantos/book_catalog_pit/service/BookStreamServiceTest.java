@@ -0,0 +1,84 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.SearchTermTooShortException;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class BookStreamServiceTest {
+
+    private final BookRepository repository = mock(BookRepository.class);
+    private final BookService bookService = mock(BookService.class);
+    private final BookStreamService service = new BookStreamService(repository, bookService, Schedulers.immediate(), 2);
+
+    @Test
+    void listAll_shouldReadPagesUntilTheLastOne() {
+        when(repository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(summary(1L), summary(2L)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(List.of(summary(3L)));
+
+        StepVerifier.create(service.listAll().map(BookSummary::getId))
+                .expectNext(1L, 2L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void listAll_shouldReadNextPageOnlyWhenRequested() {
+        when(repository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(summary(1L), summary(2L)));
+
+        StepVerifier.create(service.listAll().map(BookSummary::getId), 1)
+                .expectNext(1L)
+                .thenCancel()
+                .verify();
+
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void findByTerm_whenTermIsTooShort_shouldRejectBeforeSubscribing() {
+        assertThrows(SearchTermTooShortException.class, () -> service.findByTerm("a"));
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void findByTerm_shouldEmitResultsInRelevanceOrder() {
+        when(bookService.findByTerm("hobbit")).thenReturn(List.of(summary(7L), summary(3L)));
+
+        StepVerifier.create(service.findByTerm("hobbit").map(BookSummary::getId))
+                .expectNext(7L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByTerm_whenIndexIsReady_shouldLoadNextPageOnlyWhenRequested() {
+        when(bookService.findIdsByTerm("hobbit")).thenReturn(Optional.of(List.of(7L, 3L, 5L)));
+        when(bookService.findSummaries(List.of(7L, 3L))).thenReturn(List.of(summary(7L), summary(3L)));
+
+        StepVerifier.create(service.findByTerm("hobbit").map(BookSummary::getId), 1)
+                .expectNext(7L)
+                .thenCancel()
+                .verify();
+
+        verify(bookService, never()).findSummaries(List.of(5L));
+        verify(bookService, never()).findByTerm(any());
+    }
+
+    private static BookSummary summary(Long id) {
+        return new BookSummary(id, "Livro " + id, "Autor", 2000, "Romance");
+    }
+}
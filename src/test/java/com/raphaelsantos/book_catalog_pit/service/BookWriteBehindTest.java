@@ -0,0 +1,155 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.BookVersionConflictException;
+import com.raphaelsantos.book_catalog_pit.exception.WriteQueueFullException;
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookWriteBehindTest {
+
+    private final BookService service = mock(BookService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+    }
+
+    @Test
+    void submitCreate_shouldSaveBookInBackground() {
+        writeBehind = start(10, 10, Duration.ZERO);
+
+        long ticket = writeBehind.submitCreate(book("Dom Casmurro", null));
+
+        assertTrue(writeBehind.awaitFlushed(ticket, Duration.ofSeconds(5)));
+        verify(service).save(argThat(b -> "Dom Casmurro".equals(b.getTitle())));
+    }
+
+    @Test
+    void submitUpdate_shouldKeepOnlyLastPendingUpdateOfSameBook() {
+        when(service.findById(1L)).thenReturn(book("Original", 0L));
+        writeBehind = start(10, 10, Duration.ofMinutes(1));
+
+        writeBehind.submitUpdate(1L, book("Primeira", 0L));
+        writeBehind.submitUpdate(1L, book("Segunda", null));
+        writeBehind.stop();
+
+        verify(service, times(1)).update(eq(1L), any());
+        // A gravação confere a versão enviada com a primeira atualização
+        verify(service).update(eq(1L), argThat(b -> "Segunda".equals(b.getTitle()) && b.getVersion() == 0L));
+        assertEquals(1, meterRegistry.counter("catalog.write-behind.coalesced").count());
+    }
+
+    @Test
+    void submitUpdate_whenSameVersionIsPending_shouldRejectLaterSubmit() {
+        when(service.findById(1L)).thenReturn(book("Original", 0L));
+        writeBehind = start(10, 10, Duration.ofMinutes(1));
+
+        writeBehind.submitUpdate(1L, book("Primeira", 0L));
+
+        assertThrows(BookVersionConflictException.class, () -> writeBehind.submitUpdate(1L, book("Segunda", 0L)));
+        writeBehind.stop();
+        verify(service).update(eq(1L), argThat(b -> "Primeira".equals(b.getTitle())));
+    }
+
+    @Test
+    void flush_whenBookChangedAfterSubmit_shouldReportConflict() {
+        when(service.findById(1L)).thenReturn(book("Original", 0L));
+        when(service.update(eq(1L), argThat(b -> b != null && Long.valueOf(0L).equals(b.getVersion()))))
+                .thenThrow(new BookVersionConflictException(1L));
+        writeBehind = start(10, 10, Duration.ofMinutes(1));
+
+        long ticket = writeBehind.submitUpdate(1L, book("Editado", 0L));
+        writeBehind.stop();
+
+        assertEquals(List.of("O livro \"Editado\" foi alterado por outra pessoa e a edição não foi salva."
+                        + " Recarregue o livro e edite novamente."),
+                writeBehind.takeFailures(List.of(ticket)));
+    }
+
+    @Test
+    void submitUpdate_whenVersionIsOutdated_shouldRejectImmediately() {
+        when(service.findById(1L)).thenReturn(book("Original", 2L));
+        writeBehind = start(10, 10, Duration.ZERO);
+
+        assertThrows(BookVersionConflictException.class, () -> writeBehind.submitUpdate(1L, book("Editado", 1L)));
+        verify(service, never()).update(any(), any());
+    }
+
+    @Test
+    void submit_whenQueueIsFull_shouldThrowAfterTimeout() {
+        writeBehind = start(1, 10, Duration.ofMinutes(1));
+
+        writeBehind.submitCreate(book("Primeiro", null));
+
+        assertThrows(WriteQueueFullException.class, () -> writeBehind.submitCreate(book("Segundo", null)));
+    }
+
+    @Test
+    void flush_whenOneBookFails_shouldSaveTheOthers() {
+        when(service.save(argThat(b -> b != null && "Inválido".equals(b.getTitle()))))
+                .thenThrow(new IllegalStateException("erro"));
+        writeBehind = start(10, 10, Duration.ofMinutes(1));
+
+        writeBehind.submitCreate(book("Válido", null));
+        writeBehind.submitCreate(book("Inválido", null));
+        writeBehind.stop();
+
+        verify(service, times(2)).save(argThat(b -> "Válido".equals(b.getTitle())));
+        assertEquals(1, meterRegistry.counter("catalog.write-behind.failed").count());
+    }
+
+    @Test
+    void takeFailures_shouldReportOnlyTicketsThatFailed() {
+        when(service.save(argThat(b -> b != null && "Inválido".equals(b.getTitle()))))
+                .thenThrow(new IllegalStateException("erro"));
+        writeBehind = start(10, 10, Duration.ofMinutes(1));
+
+        long valid = writeBehind.submitCreate(book("Válido", null));
+        long invalid = writeBehind.submitCreate(book("Inválido", null));
+        writeBehind.stop();
+
+        assertTrue(writeBehind.awaitFlushed(invalid, Duration.ZERO));
+        assertEquals(List.of("Não foi possível salvar o livro \"Inválido\". Confira a listagem e tente novamente."),
+                writeBehind.takeFailures(List.of(valid, invalid)));
+        // A falha é informada uma única vez
+        assertTrue(writeBehind.takeFailures(List.of(invalid)).isEmpty());
+    }
+
+    private BookWriteBehind start(int capacity, int batchSize, Duration flushInterval) {
+        BookWriteBehind result = new BookWriteBehind(service, mock(PlatformTransactionManager.class), meterRegistry,
+                true, capacity, batchSize, flushInterval, Duration.ofMillis(50));
+        result.start();
+        return result;
+    }
+
+    private Book book(String title, Long version) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Machado de Assis");
+        book.setPublicationYear(1899);
+        book.setGenre("Romance");
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -0,0 +1,39 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link CatalogSource} de teste, que entrega uma lista fixa de livros.
+ */
+public final class CatalogSources {
+
+    private CatalogSources() {
+    }
+
+    public static CatalogSource of(List<Book> books) {
+        CatalogSource source = mock(CatalogSource.class);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            books.forEach(consumer);
+            return (long) books.size();
+        });
+        return source;
+    }
+
+    public static Book book(Long id, String title, String author, Integer year, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublicationYear(year);
+        book.setGenre(genre);
+        return book;
+    }
+}
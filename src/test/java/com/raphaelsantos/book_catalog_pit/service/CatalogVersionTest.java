@@ -0,0 +1,77 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CatalogVersionTest {
+
+    private final BookChangeOutbox outbox = mock(BookChangeOutbox.class);
+
+    @Test
+    void onBookChanged_whenStandalone_shouldIncrementVersion() {
+        CatalogVersion version = new CatalogVersion(outbox, false);
+        long before = version.current().version();
+
+        version.onBookChanged(BookChangedEvent.deleted(1L));
+
+        assertEquals(before + 1, version.current().version());
+    }
+
+    @Test
+    void current_whenClustered_shouldStartAtLastOutboxOffset() {
+        when(outbox.last()).thenReturn(change(42, "2026-10-17T12:00:00.500Z"));
+
+        CatalogVersion version = new CatalogVersion(outbox, true);
+
+        assertEquals(new CatalogVersion.Snapshot(42, Instant.parse("2026-10-17T12:00:00Z")), version.current());
+    }
+
+    @Test
+    void onChangesRelayed_whenClustered_shouldFollowOutboxOffset() {
+        CatalogVersion version = new CatalogVersion(outbox, true);
+
+        version.onChangesRelayed(new BookChangesRelayedEvent(List.of(
+                change(1, "2026-10-17T12:00:00Z"), change(2, "2026-10-17T12:00:05Z"))));
+        // Alteração de outro nó, já contada pelo outbox
+        version.onBookChanged(BookChangedEvent.remote(BookChangedEvent.Type.DELETED, 9L, null));
+
+        assertEquals(new CatalogVersion.Snapshot(2, Instant.parse("2026-10-17T12:00:05Z")), version.current());
+    }
+
+    @Test
+    void onBookChanged_whenClustered_shouldUseLocalVersionUntilChangeIsRelayed() {
+        CatalogVersion version = new CatalogVersion(outbox, true);
+        version.onChangesRelayed(new BookChangesRelayedEvent(List.of(change(4, "2026-10-17T12:00:00Z"))));
+
+        when(outbox.lastOffset()).thenReturn(6L);
+        version.onBookChanged(BookChangedEvent.created(book(7L)));
+
+        // Outro nó na posição 4 ou 6 pode ter um catálogo diferente deste
+        assertTrue(version.current().version() < 0);
+
+        version.onChangesRelayed(new BookChangesRelayedEvent(List.of(change(5, "2026-10-17T12:00:01Z"))));
+        assertNotEquals(5, version.current().version());
+
+        version.onChangesRelayed(new BookChangesRelayedEvent(List.of(change(6, "2026-10-17T12:00:02Z"))));
+        assertEquals(6, version.current().version());
+    }
+
+    private static BookChange change(long offset, String changedAt) {
+        return new BookChange(offset, "UPDATED", 1L, Instant.parse(changedAt), "a");
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,56 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CatalogWarmStartTest {
+
+    private final BookSnapshotService snapshots = mock(BookSnapshotService.class);
+    private final CatalogSource source = mock(CatalogSource.class);
+    private final CatalogWarmStart warmStart = new CatalogWarmStart(snapshots, source);
+
+    @Test
+    void saveSnapshot_whenSnapshotIsStale_shouldSaveIt() throws IOException {
+        when(source.isSnapshotCurrent()).thenReturn(false);
+
+        warmStart.saveSnapshot();
+
+        verify(snapshots).save();
+    }
+
+    @Test
+    void saveSnapshot_whenSnapshotIsCurrent_shouldKeepIt() throws IOException {
+        when(source.isSnapshotCurrent()).thenReturn(true);
+
+        warmStart.saveSnapshot();
+
+        verify(snapshots, never()).save();
+    }
+
+    @Test
+    void stop_shouldSaveTheSnapshotOnce() throws IOException {
+        when(source.isSnapshotCurrent()).thenReturn(false);
+        warmStart.start();
+
+        warmStart.stop();
+        warmStart.stop();
+
+        verify(snapshots).save();
+    }
+
+    @Test
+    void getPhase_shouldStopAfterTheWriteBehindDrains() {
+        BookWriteBehind writeBehind = mock(BookWriteBehind.class);
+        when(writeBehind.getPhase()).thenCallRealMethod();
+
+        // Fases menores param depois
+        assertTrue(warmStart.getPhase() < writeBehind.getPhase());
+    }
+}
@@ -0,0 +1,122 @@
+package com.raphaelsantos.book_catalog_pit.service;
+
+import com.raphaelsantos.book_catalog_pit.exception.BookNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_shouldShareOneCallAmongConcurrentCallers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ZERO);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("findByTerm", "java", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "resultado";
+                })));
+            }
+            // Aguarda todos chegarem antes de liberar a consulta
+            while (joined() + calls.get() < 50) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("resultado", result.get());
+            }
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(49, joined());
+        assertEquals(0.98, meterRegistry.get("catalog.single-flight.collapse-ratio")
+                .tag("operation", "findByTerm").gauge().value(), 0.001);
+    }
+
+    @Test
+    void execute_shouldRethrowLeaderExceptionToWaitingCallers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute("findById", 7L, () -> {
+                started.countDown();
+                await(release);
+                throw new BookNotFoundException(7L);
+            }));
+            started.await();
+            Future<Object> follower = executor.submit(() -> singleFlight.execute("findById", 7L, () -> "outro"));
+            while (joined() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertInstanceOf(BookNotFoundException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+            assertInstanceOf(BookNotFoundException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+        }
+
+        // Erros não são guardados: a próxima chamada executa de novo
+        assertEquals("novo", singleFlight.execute("findById", 7L, () -> "novo"));
+    }
+
+    @Test
+    void execute_withTtl_shouldReuseResultUntilCatalogChanges() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("findById", 1L, calls::incrementAndGet);
+        singleFlight.execute("findById", 1L, calls::incrementAndGet);
+        assertEquals(1, calls.get());
+
+        singleFlight.onBookChanged(BookChangedEvent.deleted(2L));
+        singleFlight.execute("findById", 1L, calls::incrementAndGet);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_whenDisabled_shouldAlwaysCall() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, false, Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("findById", 1L, calls::incrementAndGet);
+        singleFlight.execute("findById", 1L, calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    private double joined() {
+        var counter = meterRegistry.find("catalog.single-flight.calls").tag("role", "joined").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.raphaelsantos.book_catalog_pit.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LongIntHashMapTest {
+
+    @Test
+    void put_shouldReplaceAndGrow() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        map.put(7, 70);
+
+        assertEquals(1000, map.size());
+        assertEquals(70, map.get(7));
+        assertEquals(999, map.get(999));
+        assertEquals(LongIntHashMap.MISSING, map.get(1000));
+    }
+
+    @Test
+    void remove_shouldKeepOtherKeysReachable() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.remove(key));
+                expected.remove(key);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key));
+        }
+    }
+}
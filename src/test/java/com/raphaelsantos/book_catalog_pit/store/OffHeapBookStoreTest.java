@@ -0,0 +1,143 @@
+package com.raphaelsantos.book_catalog_pit.store;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.model.BookSummary;
+import com.raphaelsantos.book_catalog_pit.service.BookChangedEvent;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSource;
+import com.raphaelsantos.book_catalog_pit.service.CatalogSources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OffHeapBookStoreTest {
+
+    private OffHeapBookStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new OffHeapBookStore(CatalogSources.of(List.of()), new SimpleMeterRegistry(), true);
+        store.reload();
+    }
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void reload_whenDisabled_shouldNotBeReady() {
+        OffHeapBookStore disabled = new OffHeapBookStore(CatalogSources.of(List.of()), new SimpleMeterRegistry(), false);
+        disabled.reload();
+
+        assertFalse(disabled.isReady());
+    }
+
+    @Test
+    void reload_shouldKeepChangesReceivedWhileLoading() {
+        CatalogSource source = mock(CatalogSource.class);
+        OffHeapBookStore loading = new OffHeapBookStore(source, new SimpleMeterRegistry(), true);
+        when(source.forEach(any())).thenAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(1L, "O Hobbit", "Tolkien", "Fantasia"));
+            // Alterações confirmadas enquanto o catálogo é lido
+            loading.onBookChanged(BookChangedEvent.created(book(2L, "Dom Casmurro", "Machado de Assis", "Romance")));
+            loading.onBookChanged(BookChangedEvent.updated(book(1L, "O Hobbit", "J.R.R. Tolkien", "Fantasia")));
+            consumer.accept(book(3L, "Helena", "Machado de Assis", "Romance"));
+            return 2L;
+        });
+
+        try {
+            loading.reload();
+
+            assertEquals(3, loading.size());
+            assertEquals("J.R.R. Tolkien", loading.findBook(1L).getAuthor());
+            assertEquals("Dom Casmurro", loading.findBook(2L).getTitle());
+        } finally {
+            loading.close();
+        }
+    }
+
+    @Test
+    void findBook_shouldReturnCopyOfStoredBook() {
+        Book book = book(1L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", null);
+        book.setSynopsis("Defunto autor");
+        book.setVersion(3L);
+        book.setUpdatedAt(Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+        store.onBookChanged(BookChangedEvent.created(book));
+
+        Book found = store.findBook(1L);
+
+        assertTrue(store.isReady());
+        assertEquals("Memórias Póstumas de Brás Cubas", found.getTitle());
+        assertEquals("Machado de Assis", found.getAuthor());
+        assertEquals(1881, found.getPublicationYear());
+        assertNull(found.getGenre());
+        assertEquals("Defunto autor", found.getSynopsis());
+        assertEquals(3L, found.getVersion());
+        assertEquals(book.getUpdatedAt(), found.getUpdatedAt());
+        assertNull(store.findBook(2L));
+    }
+
+    @Test
+    void onBookChanged_shouldUpdateAndDelete() {
+        store.onBookChanged(BookChangedEvent.created(book(1L, "O Hobbit", "Tolkien", "Fantasia")));
+        store.onBookChanged(BookChangedEvent.created(book(2L, "Dom Casmurro", "Machado de Assis", "Romance")));
+        store.onBookChanged(BookChangedEvent.updated(book(1L, "O Hobbit", "J.R.R. Tolkien", "Fantasia")));
+        store.onBookChanged(BookChangedEvent.deleted(2L));
+
+        List<BookSummary> books = store.summaries();
+
+        assertEquals(1, books.size());
+        assertEquals("J.R.R. Tolkien", books.getFirst().getAuthor());
+        assertNull(store.findBook(2L));
+    }
+
+    @Test
+    void forEach_shouldSurviveGrowthAndCompaction() {
+        for (long id = 1; id <= 20_000; id++) {
+            store.onBookChanged(BookChangedEvent.created(book(id, "Livro " + id, "Autor " + "x".repeat(100), "Gênero")));
+        }
+        for (long id = 1; id <= 20_000; id++) {
+            if (id % 3 != 0) {
+                store.onBookChanged(BookChangedEvent.deleted(id));
+            } else {
+                store.onBookChanged(BookChangedEvent.updated(book(id, "Título " + id, "Autor", "Gênero")));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>();
+        store.forEach(view -> {
+            assertEquals("Título " + view.id(), view.title());
+            ids.add(view.id());
+        });
+
+        assertEquals(6_666, ids.size());
+        assertEquals(6_666, store.size());
+        assertEquals(3L, ids.getFirst());
+        assertEquals("Título 19998", store.read(19_998L, BookView::title));
+    }
+
+    private static Book book(Long id, String title, String author, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublicationYear(1881);
+        book.setGenre(genre);
+        return book;
+    }
+}
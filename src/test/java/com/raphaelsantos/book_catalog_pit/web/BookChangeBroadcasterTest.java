@@ -0,0 +1,102 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.service.BookChange;
+import com.raphaelsantos.book_catalog_pit.service.BookChangeOutbox;
+import com.raphaelsantos.book_catalog_pit.service.BookChangesRelayedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookChangeBroadcasterTest {
+
+    private final BookChangeOutbox outbox = mock(BookChangeOutbox.class);
+    private final List<Object> published = new ArrayList<>();
+
+    @Test
+    void poll_shouldRelayChangesInOrder() {
+        BookChangeBroadcaster broadcaster = broadcaster(Duration.ofHours(1));
+        when(outbox.readAfter(0L, 500)).thenReturn(List.of(change(1), change(2), change(3)));
+
+        broadcaster.poll();
+
+        assertEquals(3, broadcaster.relayed());
+        assertEquals(List.of(new BookChangesRelayedEvent(List.of(change(1), change(2), change(3)))), published);
+    }
+
+    @Test
+    void poll_whenOffsetIsMissing_shouldWaitForUncommittedTransaction() {
+        BookChangeBroadcaster broadcaster = broadcaster(Duration.ofHours(1));
+        when(outbox.readAfter(0L, 500)).thenReturn(List.of(change(1), change(3)));
+        when(outbox.readAfter(1L, 500)).thenReturn(List.of(change(3)));
+
+        broadcaster.poll();
+        broadcaster.poll();
+
+        // A alteração 2 ainda pode aparecer: a 3 não é repassada antes dela
+        assertEquals(1, broadcaster.relayed());
+
+        when(outbox.readAfter(1L, 500)).thenReturn(List.of(change(2), change(3)));
+        broadcaster.poll();
+
+        assertEquals(3, broadcaster.relayed());
+    }
+
+    @Test
+    void poll_whenGapTimeoutExpires_shouldSkipMissingOffset() {
+        BookChangeBroadcaster broadcaster = broadcaster(Duration.ZERO);
+        when(outbox.readAfter(0L, 500)).thenReturn(List.of(change(1), change(3), change(7)));
+
+        broadcaster.poll();
+
+        assertEquals(7, broadcaster.relayed());
+    }
+
+    @Test
+    void poll_whenGapIsFilled_shouldWaitAgainForTheNextGap() throws InterruptedException {
+        BookChangeBroadcaster broadcaster = broadcaster(Duration.ofMillis(200));
+        when(outbox.readAfter(0L, 500)).thenReturn(List.of(change(1), change(3)));
+        when(outbox.readAfter(1L, 500)).thenReturn(List.of(change(2), change(3)));
+        broadcaster.poll();
+        broadcaster.poll();
+        assertEquals(3, broadcaster.relayed());
+
+        // Bem depois do prazo da primeira lacuna, uma nova lacuna ainda precisa esperar o seu prazo
+        Thread.sleep(300);
+        when(outbox.readAfter(3L, 500)).thenReturn(List.of(change(5)));
+        broadcaster.poll();
+
+        assertEquals(3, broadcaster.relayed());
+    }
+
+    @Test
+    void poll_whenBufferIsFull_shouldKeepRelayingNewChanges() {
+        BookChangeBroadcaster broadcaster = new BookChangeBroadcaster(outbox, published::add, new SimpleMeterRegistry(), 2,
+                Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofHours(1), Duration.ofDays(7),
+                Duration.ofMinutes(1));
+        when(outbox.readAfter(0L, 500)).thenReturn(List.of(change(1), change(2), change(3)));
+        when(outbox.readAfter(3L, 500)).thenReturn(List.of(change(4)));
+
+        broadcaster.poll();
+        broadcaster.poll();
+
+        assertEquals(4, broadcaster.relayed());
+    }
+
+    private BookChangeBroadcaster broadcaster(Duration gapTimeout) {
+        return new BookChangeBroadcaster(outbox, published::add, new SimpleMeterRegistry(), 100,
+                Duration.ofSeconds(1), Duration.ofSeconds(15), gapTimeout, Duration.ofDays(7),
+                Duration.ofMinutes(1));
+    }
+
+    private static BookChange change(long offset) {
+        return new BookChange(offset, "CREATED", offset * 10, Instant.EPOCH, "node-1");
+    }
+}
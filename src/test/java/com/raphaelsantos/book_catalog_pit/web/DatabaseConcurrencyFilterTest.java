@@ -0,0 +1,61 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class DatabaseConcurrencyFilterTest {
+
+    @Test
+    void doFilter_whenPermitAvailable_shouldProceedAndReleasePermit() throws Exception {
+        Semaphore permits = new Semaphore(1);
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(permits, Duration.ofMillis(10));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/books"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void doFilter_whenNoPermitAvailable_shouldRespondServiceUnavailable() throws Exception {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(new Semaphore(0), Duration.ofMillis(10));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/books"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void doFilter_whenRequestIsToTheApi_shouldAlsoBeLimited() throws Exception {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(new Semaphore(0), Duration.ofMillis(10));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books/search"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void doFilter_whenRequestIsOutsideTheCatalog_shouldNotBeLimited() throws Exception {
+        DatabaseConcurrencyFilter filter = new DatabaseConcurrencyFilter(new Semaphore(0), Duration.ofMillis(10));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
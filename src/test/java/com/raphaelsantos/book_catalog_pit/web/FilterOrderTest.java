@@ -0,0 +1,25 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.OrderUtils;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FilterOrderTest {
+
+    @Test
+    void filters_shouldRunSheddingThenPageCacheThenDatabaseLimiterThenQueryCount() {
+        List<Class<?>> filters = List.of(QueryCountFilter.class, DatabaseConcurrencyFilter.class,
+                LoadSheddingFilter.class, ListPageCacheFilter.class);
+
+        List<Class<?>> ordered = filters.stream()
+                .sorted(Comparator.comparingInt(type -> OrderUtils.getOrder(type, Integer.MAX_VALUE)))
+                .toList();
+
+        assertEquals(List.of(LoadSheddingFilter.class, ListPageCacheFilter.class,
+                DatabaseConcurrencyFilter.class, QueryCountFilter.class), ordered);
+    }
+}
@@ -0,0 +1,66 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.model.Book;
+import com.raphaelsantos.book_catalog_pit.repository.BookRepository;
+import com.raphaelsantos.book_catalog_pit.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "catalog.list-cache.enabled=true")
+@AutoConfigureMockMvc
+public class ListPageCacheFilterIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private BookService service;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        service.save(book("O Hobbit"));
+    }
+
+    @Test
+    void list_shouldServeCachedPageUntilCatalogChanges() throws Exception {
+        mockMvc.perform(get("/books").param("genre", "Fantasia"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("O Hobbit")));
+
+        // Gravação direta no repositório não publica evento: a página em cache continua valendo
+        repository.save(book("O Silmarillion"));
+
+        mockMvc.perform(get("/books").param("genre", "Fantasia"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("O Silmarillion"))));
+
+        service.save(book("Contos Inacabados"));
+
+        mockMvc.perform(get("/books").param("genre", "Fantasia"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("O Silmarillion")))
+                .andExpect(content().string(containsString("Contos Inacabados")));
+    }
+
+    private Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("J.R.R. Tolkien");
+        book.setPublicationYear(1937);
+        book.setGenre("Fantasia");
+        return book;
+    }
+}
@@ -0,0 +1,142 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadSheddingFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void doFilter_whenClientExceedsRate_shouldRespondTooManyRequests() throws Exception {
+        LoadSheddingFilter filter = filter(1, 2, 10);
+
+        assertEquals(200, perform(filter, "/books", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "/books", "10.0.0.1").getStatus());
+        MockHttpServletResponse response = perform(filter, "/books", "10.0.0.1");
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        // Outros clientes têm o próprio limite
+        assertEquals(200, perform(filter, "/books", "10.0.0.2").getStatus());
+        assertEquals(3, count("served"));
+        assertEquals(1, count("throttled"));
+    }
+
+    @Test
+    void doFilter_whenTokensAreRefilled_shouldServeAgain() throws Exception {
+        LoadSheddingFilter filter = filter(2, 1, 10);
+
+        perform(filter, "/books", "10.0.0.1");
+        assertEquals(429, perform(filter, "/books", "10.0.0.1").getStatus());
+
+        clock.addAndGet(500_000_000);
+
+        assertEquals(200, perform(filter, "/books", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void doFilter_whenAllSlotsAreBusy_shouldShedWithServiceUnavailable() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        LoadSheddingFilter filter = new LoadSheddingFilter(new RateLimiter(100, 100, clock::get), limiter, meterRegistry);
+        int stripe = limiter.tryAcquire();
+
+        MockHttpServletResponse response = perform(filter, "/api/books/search", "10.0.0.1");
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(1, count("shed"));
+
+        limiter.release(stripe);
+        assertEquals(200, perform(filter, "/api/books/search", "10.0.0.1").getStatus());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void doFilter_whenRouteIsNotProtected_shouldNotLimit() throws Exception {
+        LoadSheddingFilter filter = filter(1, 1, 0);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/books/1", "10.0.0.1"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, count("served"));
+    }
+
+    @Test
+    void doFilter_whenResponseIsStreamed_shouldHoldSlotUntilItCompletes() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        LoadSheddingFilter filter = new LoadSheddingFilter(new RateLimiter(100, 100, clock::get), limiter, meterRegistry);
+        MockHttpServletRequest request = request("/api/stream/books/search", "10.0.0.1");
+        request.setAsyncSupported(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        });
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // A thread de requisição já foi liberada, mas o fluxo continua sendo enviado
+        assertEquals(1, limiter.inFlight());
+        assertEquals(503, perform(filter, "/api/stream/books", "10.0.0.2").getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void concurrencyLimiter_shouldAdmitExactlyTheConfiguredTotal() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire() >= 0);
+        }
+
+        assertEquals(-1, limiter.tryAcquire());
+        assertEquals(5, limiter.inFlight());
+    }
+
+    private LoadSheddingFilter filter(double requestsPerSecond, int burst, int maxConcurrent) {
+        return new LoadSheddingFilter(new RateLimiter(requestsPerSecond, burst, clock::get),
+                new ConcurrencyLimiter(maxConcurrent), meterRegistry);
+    }
+
+    private MockHttpServletResponse perform(LoadSheddingFilter filter, String path, String client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(path, client), response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(client);
+        return request;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("catalog.load-shedding.requests").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.raphaelsantos.book_catalog_pit.web;
+
+import com.raphaelsantos.book_catalog_pit.metrics.QueryCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryCountFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryCountFilter filter = new QueryCountFilter(registry, 2, true);
+
+    @AfterEach
+    void cleanup() {
+        QueryCounter.reset();
+    }
+
+    @Test
+    void doFilter_whenStrictAndLimitExceeded_shouldFailBeforeWritingTheResponse() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/books"), response, chainRunning(3)));
+
+        assertEquals("", response.getContentAsString());
+        assertEquals(1, registry.get("catalog.request.queries").summary().count());
+    }
+
+    @Test
+    void doFilter_whenWithinLimit_shouldWriteTheResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/books"), response, chainRunning(2));
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(2, QueryCounter.queries());
+    }
+
+    @Test
+    void doFilter_whenImportUnderContextPath_shouldNotBeLimited() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/catalogo/books/import");
+        request.setContextPath("/catalogo");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chainRunning(5));
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(0, registry.get("catalog.request.queries").summary().count());
+    }
+
+    /**
+     * Simula uma requisição que executa {@code statements} comandos SQL e só então escreve a resposta.
+     */
+    private static MockFilterChain chainRunning(int statements) {
+        QueryCounter counter = new QueryCounter();
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                for (int i = 0; i < statements; i++) {
+                    counter.inspect("select 1");
+                }
+                response.getWriter().write("ok");
+            }
+        });
+    }
+}